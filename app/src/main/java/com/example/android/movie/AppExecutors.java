@@ -7,6 +7,8 @@ import android.support.annotation.NonNull;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
+import static com.example.android.movie.utils.Constant.FETCH_THREAD_NAME;
+import static com.example.android.movie.utils.Constant.NUMBER_OF_FETCH_THREADS;
 import static com.example.android.movie.utils.Constant.NUMBER_OF_THREADS_THREE;
 
 /**
@@ -22,11 +24,14 @@ public class AppExecutors {
     private final Executor diskIO;
     private final Executor mainThread;
     private final Executor networkIO;
+    private final FetchExecutor fetch;
 
-    private AppExecutors(Executor diskIO, Executor networkIO, Executor mainThread) {
+    private AppExecutors(Executor diskIO, Executor networkIO, Executor mainThread,
+                         FetchExecutor fetch) {
         this.diskIO = diskIO;
         this.networkIO = networkIO;
         this.mainThread = mainThread;
+        this.fetch = fetch;
     }
 
     public static AppExecutors getInstance() {
@@ -34,7 +39,8 @@ public class AppExecutors {
             synchronized (LOCK) {
                 sInstance = new AppExecutors(Executors.newSingleThreadExecutor(),
                         Executors.newFixedThreadPool(NUMBER_OF_THREADS_THREE),
-                        new MainThreadExecutor());
+                        new MainThreadExecutor(),
+                        new FetchExecutor(FETCH_THREAD_NAME, NUMBER_OF_FETCH_THREADS));
             }
         }
         return sInstance;
@@ -52,6 +58,13 @@ public class AppExecutors {
         return networkIO;
     }
 
+    /**
+     * Returns the shared executor used for PagedList fetches
+     */
+    public FetchExecutor fetch() {
+        return fetch;
+    }
+
     private static class MainThreadExecutor implements Executor {
         private Handler mainThreadHandler = new Handler(Looper.getMainLooper());
 
@@ -0,0 +1,175 @@
+package com.example.android.movie;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Central registry of the in-memory caches of the application, trimmed together when the system
+ * is low on memory.
+ * <p>
+ * Each cache registers with a priority. Low priority caches, which are cheap to refill, are
+ * trimmed first and harder; high priority caches, such as the images on screen, are only shrunk
+ * once memory gets tight. Hiding the UI alone trims nothing, so coming back to the app is fast;
+ * every cache is only cleared when the process is about to be killed. The registry
+ * is registered as {@link ComponentCallbacks2} on the application, so it is trimmed whichever
+ * screen is showing.
+ */
+public class CacheRegistry implements ComponentCallbacks2 {
+
+    /** Tag for logging */
+    private static final String TAG = CacheRegistry.class.getSimpleName();
+
+    /** Priorities of the registered caches, lower is trimmed first */
+    public static final int PRIORITY_LOW = 0;
+    public static final int PRIORITY_HIGH = 1;
+
+    /**
+     * Trim levels of memory pressure, from the least to the most severe. The running levels are
+     * sent while the app is in the foreground, the others once it is in the background.
+     */
+    private static final int[] TRIM_LEVELS = {
+            TRIM_MEMORY_RUNNING_MODERATE,
+            TRIM_MEMORY_RUNNING_LOW,
+            TRIM_MEMORY_RUNNING_CRITICAL,
+            TRIM_MEMORY_BACKGROUND,
+            TRIM_MEMORY_MODERATE,
+            TRIM_MEMORY_COMPLETE};
+
+    /** Fraction of each cache kept at each trim level, indexed by priority then trim level */
+    private static final float[][] KEEP_FRACTIONS = {
+            {0.5f, 0f, 0f, 0.5f, 0f, 0f},
+            {1f, 0.75f, 0.5f, 1f, 0.75f, 0f}};
+
+    private static final Object LOCK = new Object();
+    private static CacheRegistry sInstance;
+
+    /** Registered caches, lowest priority first */
+    private final List<Registration> mRegistrations = new ArrayList<>();
+
+    private long mTotalFreedBytes;
+
+    private CacheRegistry() {
+    }
+
+    public static CacheRegistry getInstance() {
+        if (sInstance == null) {
+            synchronized (LOCK) {
+                sInstance = new CacheRegistry();
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * Register a cache to be trimmed. Registering the same cache again has no effect.
+     *
+     * @param cache The cache
+     * @param priority {@link #PRIORITY_LOW} or {@link #PRIORITY_HIGH}
+     */
+    public synchronized void register(TrimmableCache cache, int priority) {
+        for (Registration registration : mRegistrations) {
+            if (registration.mCache == cache) {
+                return;
+            }
+        }
+        int index = 0;
+        while (index < mRegistrations.size() && mRegistrations.get(index).mPriority <= priority) {
+            index++;
+        }
+        mRegistrations.add(index, new Registration(cache, priority));
+    }
+
+    public synchronized void unregister(TrimmableCache cache) {
+        for (int i = 0; i < mRegistrations.size(); i++) {
+            if (mRegistrations.get(i).mCache == cache) {
+                mRegistrations.remove(i);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        trim(level);
+    }
+
+    @Override
+    public void onLowMemory() {
+        trim(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    /**
+     * Trim every registered cache for the level, lowest priority first
+     *
+     * @param level The level passed to {@link ComponentCallbacks2#onTrimMemory(int)}
+     * @return The approximate number of bytes freed
+     */
+    public synchronized int trim(int level) {
+        int freedBytes = 0;
+        for (Registration registration : mRegistrations) {
+            float fraction = keepFraction(level, registration.mPriority);
+            if (fraction < 1f) {
+                freedBytes += registration.mCache.trimTo(fraction);
+            }
+        }
+        mTotalFreedBytes += freedBytes;
+        Log.d(TAG, "Trim level " + level + " freed " + freedBytes + " bytes, "
+                + getSizeBytes() + " bytes still cached");
+        return freedBytes;
+    }
+
+    /**
+     * Returns the approximate number of bytes held by the registered caches
+     */
+    public synchronized int getSizeBytes() {
+        int sizeBytes = 0;
+        for (Registration registration : mRegistrations) {
+            sizeBytes += registration.mCache.getSizeBytes();
+        }
+        return sizeBytes;
+    }
+
+    /**
+     * Returns the approximate number of bytes freed by every trim so far
+     */
+    public synchronized long getTotalFreedBytes() {
+        return mTotalFreedBytes;
+    }
+
+    /**
+     * Returns the fraction of a cache with the priority kept at the trim level.
+     * TRIM_MEMORY_UI_HIDDEN only means the app went to the background, not that memory is low, so
+     * nothing is trimmed.
+     */
+    static float keepFraction(int level, int priority) {
+        if (level == TRIM_MEMORY_UI_HIDDEN) {
+            return 1f;
+        }
+        float fraction = 1f;
+        for (int i = 0; i < TRIM_LEVELS.length && level >= TRIM_LEVELS[i]; i++) {
+            fraction = KEEP_FRACTIONS[priority][i];
+        }
+        return fraction;
+    }
+
+    /**
+     * A registered cache with its priority
+     */
+    private static final class Registration {
+        private final TrimmableCache mCache;
+        private final int mPriority;
+
+        Registration(TrimmableCache cache, int priority) {
+            mCache = cache;
+            mPriority = priority;
+        }
+    }
+}
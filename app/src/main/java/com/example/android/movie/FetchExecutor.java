@@ -0,0 +1,160 @@
+package com.example.android.movie;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared executor for PagedList fetches and other background loads.
+ * <p>
+ * Tasks run on a fixed number of named background threads in submission order, and every task
+ * runs: PagedList loads and list diffs can't be dropped without leaving their list stuck. The queue
+ * doesn't need a bound of its own, since a PagedList has at most one load in flight in each
+ * direction. Queue depth, active count and task latency are exposed so the paging load can be
+ * observed.
+ */
+public class FetchExecutor implements Executor {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final ThreadPoolExecutor mThreadPool;
+    private final LinkedBlockingQueue<Runnable> mQueue;
+
+    private final AtomicInteger mCompletedCount = new AtomicInteger();
+    private final AtomicLong mTotalWaitMillis = new AtomicLong();
+    private final AtomicLong mTotalRunMillis = new AtomicLong();
+    private final AtomicLong mMaxWaitMillis = new AtomicLong();
+
+    /**
+     * Creates a FetchExecutor
+     *
+     * @param name The prefix of the thread names
+     * @param threadCount The number of threads running tasks
+     */
+    FetchExecutor(String name, int threadCount) {
+        mQueue = new LinkedBlockingQueue<>();
+        mThreadPool = new ThreadPoolExecutor(threadCount, threadCount,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, mQueue, new NamedThreadFactory(name));
+        mThreadPool.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        mThreadPool.execute(new TimedTask(command));
+    }
+
+    /**
+     * Returns the number of tasks waiting for a thread
+     */
+    public int getQueueDepth() {
+        return mQueue.size();
+    }
+
+    /**
+     * Returns the approximate number of threads running a task
+     */
+    public int getActiveCount() {
+        return mThreadPool.getActiveCount();
+    }
+
+    /**
+     * Returns the number of tasks that have run to completion
+     */
+    public int getCompletedCount() {
+        return mCompletedCount.get();
+    }
+
+    /**
+     * Returns the average time a completed task waited in the queue before it started
+     */
+    public long getAverageWaitMillis() {
+        int completed = mCompletedCount.get();
+        return completed == 0 ? 0 : mTotalWaitMillis.get() / completed;
+    }
+
+    /**
+     * Returns the longest time a completed task waited in the queue before it started
+     */
+    public long getMaxWaitMillis() {
+        return mMaxWaitMillis.get();
+    }
+
+    /**
+     * Returns the average time a completed task took to run
+     */
+    public long getAverageRunMillis() {
+        int completed = mCompletedCount.get();
+        return completed == 0 ? 0 : mTotalRunMillis.get() / completed;
+    }
+
+    @Override
+    public String toString() {
+        return "FetchExecutor{queueDepth=" + getQueueDepth()
+                + ", active=" + getActiveCount()
+                + ", completed=" + getCompletedCount()
+                + ", avgWaitMs=" + getAverageWaitMillis()
+                + ", maxWaitMs=" + getMaxWaitMillis()
+                + ", avgRunMs=" + getAverageRunMillis() + "}";
+    }
+
+    /**
+     * Wraps a task and records its latency
+     */
+    private class TimedTask implements Runnable {
+        private final Runnable mCommand;
+        private final long mEnqueuedAt;
+
+        TimedTask(Runnable command) {
+            mCommand = command;
+            mEnqueuedAt = SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void run() {
+            long startedAt = SystemClock.elapsedRealtime();
+            long waitMillis = startedAt - mEnqueuedAt;
+            try {
+                mCommand.run();
+            } finally {
+                mTotalWaitMillis.addAndGet(waitMillis);
+                mTotalRunMillis.addAndGet(SystemClock.elapsedRealtime() - startedAt);
+                long maxWait = mMaxWaitMillis.get();
+                while (waitMillis > maxWait && !mMaxWaitMillis.compareAndSet(maxWait, waitMillis)) {
+                    maxWait = mMaxWaitMillis.get();
+                }
+                mCompletedCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Creates named background threads, e.g. "paging-fetch-1"
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String mName;
+        private final AtomicInteger mThreadNumber = new AtomicInteger(1);
+
+        NamedThreadFactory(String name) {
+            mName = name;
+        }
+
+        @Override
+        public Thread newThread(@NonNull final Runnable runnable) {
+            return new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    runnable.run();
+                }
+            }, mName + "-" + mThreadNumber.getAndIncrement());
+        }
+    }
+}
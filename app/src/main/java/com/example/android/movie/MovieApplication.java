@@ -0,0 +1,27 @@
+package com.example.android.movie;
+
+import android.app.Application;
+
+import com.example.android.movie.utils.ImageMemoryCache;
+import com.squareup.picasso.Picasso;
+
+/**
+ * Sets up the application wide image loader and registers its memory cache with the
+ * {@link CacheRegistry}, before any screen loads an image.
+ */
+public class MovieApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        ImageMemoryCache imageMemoryCache = new ImageMemoryCache(this);
+        Picasso.setSingletonInstance(new Picasso.Builder(this)
+                .memoryCache(imageMemoryCache)
+                .build());
+
+        CacheRegistry cacheRegistry = CacheRegistry.getInstance();
+        cacheRegistry.register(imageMemoryCache, CacheRegistry.PRIORITY_HIGH);
+        registerComponentCallbacks(cacheRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.android.movie;
+
+/**
+ * An in-memory cache that can give memory back when the system asks for it. Caches are
+ * registered with the {@link CacheRegistry}, which decides how much of each one to keep.
+ */
+public interface TrimmableCache {
+
+    /**
+     * Returns the approximate number of bytes held by the cache
+     */
+    int getSizeBytes();
+
+    /**
+     * Evict the least recently used entries until the cache holds at most the given fraction of
+     * its current size. A fraction of 0 clears the cache.
+     *
+     * @param fraction The fraction of the current size to keep, between 0 and 1
+     * @return The approximate number of bytes freed
+     */
+    int trimTo(float fraction);
+}
@@ -0,0 +1,57 @@
+package com.example.android.movie.data;
+
+import android.arch.persistence.room.ColumnInfo;
+import android.arch.persistence.room.Entity;
+import android.arch.persistence.room.PrimaryKey;
+import android.support.annotation.NonNull;
+
+import java.util.Date;
+
+/**
+ * The movie the browse grid of a sort criteria was showing when the screen was last saved, with
+ * the page it came from. It outlives the process, so the grid can resume at the same movie.
+ */
+@Entity(tableName = "browse_anchor")
+public class BrowseAnchorEntry {
+
+    @NonNull
+    @PrimaryKey
+    @ColumnInfo(name = "sort_criteria")
+    private String sortCriteria;
+
+    private int page;
+
+    @ColumnInfo(name = "movie_id")
+    private int movieId;
+
+    /** Date the anchor was saved */
+    @ColumnInfo(name = "saved_at")
+    private Date savedAt;
+
+    /**
+     * Constructor used by Room to create BrowseAnchorEntries
+     */
+    public BrowseAnchorEntry(@NonNull String sortCriteria, int page, int movieId, Date savedAt) {
+        this.sortCriteria = sortCriteria;
+        this.page = page;
+        this.movieId = movieId;
+        this.savedAt = savedAt;
+    }
+
+    @NonNull
+    public String getSortCriteria() {
+        return sortCriteria;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getMovieId() {
+        return movieId;
+    }
+
+    public Date getSavedAt() {
+        return savedAt;
+    }
+}
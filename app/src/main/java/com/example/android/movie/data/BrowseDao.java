@@ -0,0 +1,95 @@
+package com.example.android.movie.data;
+
+import android.arch.paging.DataSource;
+import android.arch.persistence.room.Dao;
+import android.arch.persistence.room.Insert;
+import android.arch.persistence.room.OnConflictStrategy;
+import android.arch.persistence.room.Query;
+import android.arch.persistence.room.Transaction;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * {@link Dao} for the browse catalog, the pages of movie/{sort_criteria} persisted as
+ * {@link BrowsePageEntry} and {@link BrowseMovieEntry}.
+ * <p>
+ * This is an abstract class rather than an interface so pages can be written in a single
+ * {@link Transaction}.
+ */
+@Dao
+public abstract class BrowseDao {
+
+    @Query("SELECT * FROM browse_movie WHERE sort_criteria = :sortCriteria ORDER BY page, position")
+    public abstract DataSource.Factory<Integer, BrowseMovieEntry> loadMovies(String sortCriteria);
+
+    @Query("SELECT * FROM browse_page WHERE sort_criteria = :sortCriteria ORDER BY page DESC LIMIT 1")
+    public abstract BrowsePageEntry loadLastPage(String sortCriteria);
+
+    @Query("SELECT * FROM browse_page WHERE sort_criteria = :sortCriteria AND page = :page")
+    public abstract BrowsePageEntry loadPage(String sortCriteria, int page);
+
+    @Query("SELECT movie_id FROM browse_movie WHERE sort_criteria = :sortCriteria")
+    public abstract List<Integer> loadMovieIds(String sortCriteria);
+
+    @Query("SELECT * FROM browse_movie WHERE sort_criteria = :sortCriteria AND movie_id = :movieId "
+            + "LIMIT 1")
+    public abstract BrowseMovieEntry loadMovie(String sortCriteria, int movieId);
+
+    /**
+     * Returns the position of a stored movie in the grid, the number of movies stored before it
+     */
+    @Query("SELECT COUNT(*) FROM browse_movie WHERE sort_criteria = :sortCriteria "
+            + "AND (page < :page OR (page = :page AND position < :position))")
+    public abstract int countMoviesBefore(String sortCriteria, int page, int position);
+
+    @Query("SELECT * FROM browse_anchor WHERE sort_criteria = :sortCriteria")
+    public abstract BrowseAnchorEntry loadAnchor(String sortCriteria);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertAnchor(BrowseAnchorEntry anchor);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertPageEntry(BrowsePageEntry pageEntry);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertMovies(List<BrowseMovieEntry> movies);
+
+    @Query("DELETE FROM browse_page WHERE sort_criteria = :sortCriteria")
+    abstract void deletePages(String sortCriteria);
+
+    @Query("DELETE FROM browse_movie WHERE sort_criteria = :sortCriteria")
+    abstract void deleteMovies(String sortCriteria);
+
+    /**
+     * Write a downloaded page and its movies
+     */
+    @Transaction
+    public void insertPage(BrowsePageEntry pageEntry, List<BrowseMovieEntry> movies) {
+        insertPageEntry(pageEntry);
+        insertMovies(movies);
+    }
+
+    /**
+     * Remember the stored movie as the one the grid of the sort criteria was showing, with its
+     * page. Nothing is saved when the movie isn't stored.
+     */
+    @Transaction
+    public void saveAnchor(String sortCriteria, int movieId) {
+        BrowseMovieEntry movie = loadMovie(sortCriteria, movieId);
+        if (movie != null) {
+            insertAnchor(new BrowseAnchorEntry(sortCriteria, movie.getPage(), movieId, new Date()));
+        }
+    }
+
+    /**
+     * Drop every stored page of the sort criteria and replace them with a freshly downloaded
+     * first page
+     */
+    @Transaction
+    public void replaceWithFirstPage(BrowsePageEntry pageEntry, List<BrowseMovieEntry> movies) {
+        deleteMovies(pageEntry.getSortCriteria());
+        deletePages(pageEntry.getSortCriteria());
+        insertPage(pageEntry, movies);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.android.movie.data;
+
+import android.arch.persistence.room.ColumnInfo;
+import android.arch.persistence.room.Entity;
+import android.arch.persistence.room.Ignore;
+import android.support.annotation.NonNull;
+
+import com.example.android.movie.model.Movie;
+
+/**
+ * A movie of the browse catalog, stored at its position within a downloaded page of
+ * movie/{sort_criteria}.
+ */
+@Entity(tableName = "browse_movie", primaryKeys = {"sort_criteria", "page", "position"})
+public class BrowseMovieEntry {
+
+    @NonNull
+    @ColumnInfo(name = "sort_criteria")
+    private String sortCriteria;
+
+    private int page;
+
+    /** Position of the movie within its page */
+    private int position;
+
+    @ColumnInfo(name = "movie_id")
+    private int movieId;
+
+    @ColumnInfo(name = "original_title")
+    private String originalTitle;
+
+    private String title;
+
+    @ColumnInfo(name = "poster_path")
+    private String posterPath;
+
+    private String overview;
+
+    @ColumnInfo(name = "vote_average")
+    private double voteAverage;
+
+    @ColumnInfo(name = "release_date")
+    private String releaseDate;
+
+    @ColumnInfo(name = "backdrop_path")
+    private String backdropPath;
+
+    /**
+     * Constructor
+     *
+     * @param sortCriteria The sort criteria of the page the movie was downloaded with
+     * @param page The page index
+     * @param position The position of the movie within the page
+     * @param movie The movie from the TMDb response
+     */
+    @Ignore
+    public BrowseMovieEntry(@NonNull String sortCriteria, int page, int position, Movie movie) {
+        this(sortCriteria, page, position, movie.getId(), movie.getOriginalTitle(), movie.getTitle(),
+                movie.getPosterPath(), movie.getOverview(), movie.getVoteAverage(),
+                movie.getReleaseDate(), movie.getBackdropPath());
+    }
+
+    /**
+     * Constructor used by Room to create BrowseMovieEntries
+     */
+    public BrowseMovieEntry(@NonNull String sortCriteria, int page, int position, int movieId,
+                            String originalTitle, String title, String posterPath, String overview,
+                            double voteAverage, String releaseDate, String backdropPath) {
+        this.sortCriteria = sortCriteria;
+        this.page = page;
+        this.position = position;
+        this.movieId = movieId;
+        this.originalTitle = originalTitle;
+        this.title = title;
+        this.posterPath = posterPath;
+        this.overview = overview;
+        this.voteAverage = voteAverage;
+        this.releaseDate = releaseDate;
+        this.backdropPath = backdropPath;
+    }
+
+    /**
+     * Returns the {@link Movie} displayed in the browse grid
+     */
+    public Movie toMovie() {
+        return new Movie(movieId, originalTitle, title, posterPath, overview, voteAverage,
+                releaseDate, backdropPath);
+    }
+
+    @NonNull
+    public String getSortCriteria() {
+        return sortCriteria;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public int getMovieId() {
+        return movieId;
+    }
+
+    public String getOriginalTitle() {
+        return originalTitle;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getPosterPath() {
+        return posterPath;
+    }
+
+    public String getOverview() {
+        return overview;
+    }
+
+    public double getVoteAverage() {
+        return voteAverage;
+    }
+
+    public String getReleaseDate() {
+        return releaseDate;
+    }
+
+    public String getBackdropPath() {
+        return backdropPath;
+    }
+}
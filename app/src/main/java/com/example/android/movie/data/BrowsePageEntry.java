@@ -0,0 +1,64 @@
+package com.example.android.movie.data;
+
+import android.arch.persistence.room.ColumnInfo;
+import android.arch.persistence.room.Entity;
+import android.support.annotation.NonNull;
+
+import java.util.Date;
+
+/**
+ * A page of the browse catalog that has been downloaded from movie/{sort_criteria} and written to
+ * the database. The movies of the page are stored as {@link BrowseMovieEntry}s.
+ */
+@Entity(tableName = "browse_page", primaryKeys = {"sort_criteria", "page"})
+public class BrowsePageEntry {
+
+    @NonNull
+    @ColumnInfo(name = "sort_criteria")
+    private String sortCriteria;
+
+    private int page;
+
+    @ColumnInfo(name = "total_pages")
+    private int totalPages;
+
+    @ColumnInfo(name = "total_results")
+    private int totalResults;
+
+    /** Date the page was downloaded from TMDb */
+    @ColumnInfo(name = "fetched_at")
+    private Date fetchedAt;
+
+    /**
+     * Constructor used by Room to create BrowsePageEntries
+     */
+    public BrowsePageEntry(@NonNull String sortCriteria, int page, int totalPages, int totalResults,
+                           Date fetchedAt) {
+        this.sortCriteria = sortCriteria;
+        this.page = page;
+        this.totalPages = totalPages;
+        this.totalResults = totalResults;
+        this.fetchedAt = fetchedAt;
+    }
+
+    @NonNull
+    public String getSortCriteria() {
+        return sortCriteria;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public int getTotalResults() {
+        return totalResults;
+    }
+
+    public Date getFetchedAt() {
+        return fetchedAt;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.android.movie.data;
+
+import android.arch.persistence.room.ColumnInfo;
+import android.arch.persistence.room.Entity;
+import android.arch.persistence.room.Ignore;
+
+import com.example.android.movie.model.Cast;
+
+/**
+ * A cast member of a cached {@link MovieDetailEntry}, stored at their position in the credits
+ */
+@Entity(tableName = "detail_cast", primaryKeys = {"movie_id", "position"})
+public class DetailCastEntry {
+
+    @ColumnInfo(name = "movie_id")
+    private int movieId;
+
+    private int position;
+
+    @ColumnInfo(name = "cast_id")
+    private int castId;
+
+    private String character;
+
+    @ColumnInfo(name = "person_id")
+    private int personId;
+
+    private String name;
+
+    @ColumnInfo(name = "profile_path")
+    private String profilePath;
+
+    @Ignore
+    public DetailCastEntry(int movieId, int position, Cast cast) {
+        this(movieId, position, cast.getCastId(), cast.getCharacter(), cast.getPersonId(),
+                cast.getName(), cast.getProfilePath());
+    }
+
+    /**
+     * Constructor used by Room to create DetailCastEntries
+     */
+    public DetailCastEntry(int movieId, int position, int castId, String character, int personId,
+                           String name, String profilePath) {
+        this.movieId = movieId;
+        this.position = position;
+        this.castId = castId;
+        this.character = character;
+        this.personId = personId;
+        this.name = name;
+        this.profilePath = profilePath;
+    }
+
+    public int getMovieId() {
+        return movieId;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public int getCastId() {
+        return castId;
+    }
+
+    public String getCharacter() {
+        return character;
+    }
+
+    public int getPersonId() {
+        return personId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getProfilePath() {
+        return profilePath;
+    }
+
+    Cast toCast() {
+        Cast cast = new Cast();
+        cast.setCastId(castId);
+        cast.setCharacter(character);
+        cast.setPersonId(personId);
+        cast.setName(name);
+        cast.setProfilePath(profilePath);
+        return cast;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.android.movie.data;
+
+import android.arch.persistence.room.ColumnInfo;
+import android.arch.persistence.room.Entity;
+import android.arch.persistence.room.Ignore;
+
+import com.example.android.movie.model.Crew;
+
+/**
+ * A crew member of a cached {@link MovieDetailEntry}, stored at their position in the credits
+ */
+@Entity(tableName = "detail_crew", primaryKeys = {"movie_id", "position"})
+public class DetailCrewEntry {
+
+    @ColumnInfo(name = "movie_id")
+    private int movieId;
+
+    private int position;
+
+    private String job;
+
+    private String name;
+
+    @Ignore
+    public DetailCrewEntry(int movieId, int position, Crew crew) {
+        this(movieId, position, crew.getJob(), crew.getName());
+    }
+
+    /**
+     * Constructor used by Room to create DetailCrewEntries
+     */
+    public DetailCrewEntry(int movieId, int position, String job, String name) {
+        this.movieId = movieId;
+        this.position = position;
+        this.job = job;
+        this.name = name;
+    }
+
+    public int getMovieId() {
+        return movieId;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    Crew toCrew() {
+        Crew crew = new Crew();
+        crew.setJob(job);
+        crew.setName(name);
+        return crew;
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.android.movie.data;
+
+import android.arch.persistence.room.Dao;
+import android.arch.persistence.room.Insert;
+import android.arch.persistence.room.OnConflictStrategy;
+import android.arch.persistence.room.Query;
+import android.arch.persistence.room.Transaction;
+
+import com.example.android.movie.model.Cast;
+import com.example.android.movie.model.Credits;
+import com.example.android.movie.model.Crew;
+import com.example.android.movie.model.Genre;
+import com.example.android.movie.model.MovieDetails;
+import com.example.android.movie.model.Review;
+import com.example.android.movie.model.ReviewResponse;
+import com.example.android.movie.model.Video;
+import com.example.android.movie.model.VideoResponse;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * {@link Dao} for the cached movie details, the responses of movie/{movie_id} persisted as a
+ * {@link MovieDetailEntry} with its {@link DetailGenreEntry}, {@link DetailCastEntry},
+ * {@link DetailCrewEntry}, {@link DetailVideoEntry} and {@link DetailReviewEntry} rows.
+ * <p>
+ * This is an abstract class rather than an interface so a response can be read and written in a
+ * single {@link Transaction}.
+ * <p>
+ * The cache is bounded with {@link #evict(Date, int)}. The details of favorites are never
+ * evicted.
+ */
+@Dao
+public abstract class DetailDao {
+
+    /**
+     * The cached movies that aren't favorites and were downloaded before :staleBefore, or aren't
+     * among the :maxCount most recently downloaded ones
+     */
+    private static final String EVICTABLE_MOVIE_IDS = "SELECT movie_id FROM movie_detail "
+            + "WHERE movie_id NOT IN (SELECT movie_id FROM movie) "
+            + "AND (fetched_at IS NULL OR fetched_at < :staleBefore OR movie_id NOT IN "
+            + "(SELECT movie_id FROM movie_detail "
+            + "WHERE movie_id NOT IN (SELECT movie_id FROM movie) "
+            + "ORDER BY fetched_at DESC LIMIT :maxCount))";
+
+    @Query("SELECT * FROM movie_detail WHERE movie_id = :movieId")
+    abstract MovieDetailEntry loadDetail(int movieId);
+
+    @Query("SELECT * FROM detail_genre WHERE movie_id = :movieId ORDER BY position")
+    abstract List<DetailGenreEntry> loadGenres(int movieId);
+
+    @Query("SELECT * FROM detail_cast WHERE movie_id = :movieId ORDER BY position")
+    abstract List<DetailCastEntry> loadCast(int movieId);
+
+    @Query("SELECT * FROM detail_crew WHERE movie_id = :movieId ORDER BY position")
+    abstract List<DetailCrewEntry> loadCrew(int movieId);
+
+    @Query("SELECT * FROM detail_video WHERE movie_id = :movieId ORDER BY position")
+    abstract List<DetailVideoEntry> loadVideos(int movieId);
+
+    @Query("SELECT * FROM detail_review WHERE movie_id = :movieId ORDER BY position")
+    abstract List<DetailReviewEntry> loadReviews(int movieId);
+
+    /**
+     * Returns the date the details of the movie were downloaded, or null when they aren't cached
+     */
+    @Query("SELECT fetched_at FROM movie_detail WHERE movie_id = :movieId")
+    public abstract Date loadFetchedAt(int movieId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertDetail(MovieDetailEntry detail);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertGenres(List<DetailGenreEntry> genres);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertCast(List<DetailCastEntry> cast);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertCrew(List<DetailCrewEntry> crew);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertVideos(List<DetailVideoEntry> videos);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    abstract void insertReviews(List<DetailReviewEntry> reviews);
+
+    @Query("DELETE FROM detail_genre WHERE movie_id = :movieId")
+    abstract void deleteGenres(int movieId);
+
+    @Query("DELETE FROM detail_cast WHERE movie_id = :movieId")
+    abstract void deleteCast(int movieId);
+
+    @Query("DELETE FROM detail_crew WHERE movie_id = :movieId")
+    abstract void deleteCrew(int movieId);
+
+    @Query("DELETE FROM detail_video WHERE movie_id = :movieId")
+    abstract void deleteVideos(int movieId);
+
+    @Query("DELETE FROM detail_review WHERE movie_id = :movieId")
+    abstract void deleteReviews(int movieId);
+
+    @Query("DELETE FROM detail_genre WHERE movie_id IN (" + EVICTABLE_MOVIE_IDS + ")")
+    abstract void deleteEvictableGenres(Date staleBefore, int maxCount);
+
+    @Query("DELETE FROM detail_cast WHERE movie_id IN (" + EVICTABLE_MOVIE_IDS + ")")
+    abstract void deleteEvictableCast(Date staleBefore, int maxCount);
+
+    @Query("DELETE FROM detail_crew WHERE movie_id IN (" + EVICTABLE_MOVIE_IDS + ")")
+    abstract void deleteEvictableCrew(Date staleBefore, int maxCount);
+
+    @Query("DELETE FROM detail_video WHERE movie_id IN (" + EVICTABLE_MOVIE_IDS + ")")
+    abstract void deleteEvictableVideos(Date staleBefore, int maxCount);
+
+    @Query("DELETE FROM detail_review WHERE movie_id IN (" + EVICTABLE_MOVIE_IDS + ")")
+    abstract void deleteEvictableReviews(Date staleBefore, int maxCount);
+
+    @Query("DELETE FROM movie_detail WHERE movie_id IN (" + EVICTABLE_MOVIE_IDS + ")")
+    abstract int deleteEvictableDetails(Date staleBefore, int maxCount);
+
+    /**
+     * Drop the cached details of the movies that aren't favorites and are older than the given
+     * date or beyond the most recently downloaded ones. The rows of the appended responses are
+     * deleted first, while the movies are still listed in movie_detail.
+     *
+     * @param staleBefore Details downloaded before this date are evicted
+     * @param maxCount The number of most recently downloaded movies kept
+     * @return The number of movies evicted
+     */
+    @Transaction
+    public int evict(Date staleBefore, int maxCount) {
+        deleteEvictableGenres(staleBefore, maxCount);
+        deleteEvictableCast(staleBefore, maxCount);
+        deleteEvictableCrew(staleBefore, maxCount);
+        deleteEvictableVideos(staleBefore, maxCount);
+        deleteEvictableReviews(staleBefore, maxCount);
+        return deleteEvictableDetails(staleBefore, maxCount);
+    }
+
+    /**
+     * Returns the cached details of the movie with its genres, credits, videos and reviews, or
+     * null when the movie isn't cached
+     *
+     * @param movieId The movie ID
+     */
+    @Transaction
+    public MovieDetails loadMovieDetails(int movieId) {
+        MovieDetailEntry detail = loadDetail(movieId);
+        if (detail == null) {
+            return null;
+        }
+        MovieDetails movieDetails = detail.toMovieDetails();
+
+        List<Genre> genres = new ArrayList<>();
+        for (DetailGenreEntry genre : loadGenres(movieId)) {
+            genres.add(genre.toGenre());
+        }
+        movieDetails.setGenres(genres);
+
+        List<Cast> cast = new ArrayList<>();
+        for (DetailCastEntry castMember : loadCast(movieId)) {
+            cast.add(castMember.toCast());
+        }
+        List<Crew> crew = new ArrayList<>();
+        for (DetailCrewEntry crewMember : loadCrew(movieId)) {
+            crew.add(crewMember.toCrew());
+        }
+        Credits credits = new Credits();
+        credits.setCast(cast);
+        credits.setCrew(crew);
+        movieDetails.setCredits(credits);
+
+        List<Video> videos = new ArrayList<>();
+        for (DetailVideoEntry video : loadVideos(movieId)) {
+            videos.add(video.toVideo());
+        }
+        VideoResponse videoResponse = new VideoResponse();
+        videoResponse.setId(movieId);
+        videoResponse.setVideoResults(videos);
+        movieDetails.setVideos(videoResponse);
+
+        List<Review> reviews = new ArrayList<>();
+        for (DetailReviewEntry review : loadReviews(movieId)) {
+            reviews.add(review.toReview());
+        }
+        ReviewResponse reviewResponse = new ReviewResponse();
+        reviewResponse.setId(movieId);
+        reviewResponse.setReviewResults(reviews);
+        movieDetails.setReviews(reviewResponse);
+
+        return movieDetails;
+    }
+
+    /**
+     * Replace the cached details of the movie with a downloaded response
+     *
+     * @param movieId The movie ID
+     * @param movieDetails The details with the appended credits, videos and reviews
+     * @param fetchedAt Date the details were downloaded
+     */
+    @Transaction
+    public void saveMovieDetails(int movieId, MovieDetails movieDetails, Date fetchedAt) {
+        deleteGenres(movieId);
+        deleteCast(movieId);
+        deleteCrew(movieId);
+        deleteVideos(movieId);
+        deleteReviews(movieId);
+        insertDetail(new MovieDetailEntry(movieId, movieDetails, fetchedAt));
+
+        List<DetailGenreEntry> genres = new ArrayList<>();
+        if (movieDetails.getGenres() != null) {
+            for (int i = 0; i < movieDetails.getGenres().size(); i++) {
+                genres.add(new DetailGenreEntry(movieId, i, movieDetails.getGenres().get(i)));
+            }
+        }
+        insertGenres(genres);
+
+        Credits credits = movieDetails.getCredits();
+        List<DetailCastEntry> cast = new ArrayList<>();
+        List<DetailCrewEntry> crew = new ArrayList<>();
+        if (credits != null && credits.getCast() != null) {
+            for (int i = 0; i < credits.getCast().size(); i++) {
+                cast.add(new DetailCastEntry(movieId, i, credits.getCast().get(i)));
+            }
+        }
+        if (credits != null && credits.getCrew() != null) {
+            for (int i = 0; i < credits.getCrew().size(); i++) {
+                crew.add(new DetailCrewEntry(movieId, i, credits.getCrew().get(i)));
+            }
+        }
+        insertCast(cast);
+        insertCrew(crew);
+
+        VideoResponse videoResponse = movieDetails.getVideos();
+        List<DetailVideoEntry> videos = new ArrayList<>();
+        if (videoResponse != null && videoResponse.getVideoResults() != null) {
+            for (int i = 0; i < videoResponse.getVideoResults().size(); i++) {
+                videos.add(new DetailVideoEntry(movieId, i, videoResponse.getVideoResults().get(i)));
+            }
+        }
+        insertVideos(videos);
+
+        ReviewResponse reviewResponse = movieDetails.getReviews();
+        List<DetailReviewEntry> reviews = new ArrayList<>();
+        if (reviewResponse != null && reviewResponse.getReviewResults() != null) {
+            for (int i = 0; i < reviewResponse.getReviewResults().size(); i++) {
+                reviews.add(new DetailReviewEntry(movieId, i,
+                        reviewResponse.getReviewResults().get(i)));
+            }
+        }
+        insertReviews(reviews);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.android.movie.data;
+
+import android.arch.persistence.room.ColumnInfo;
+import android.arch.persistence.room.Entity;
+import android.arch.persistence.room.Ignore;
+
+import com.example.android.movie.model.Genre;
+
+/**
+ * A genre of a cached {@link MovieDetailEntry}, stored at its position in the response
+ */
+@Entity(tableName = "detail_genre", primaryKeys = {"movie_id", "position"})
+public class DetailGenreEntry {
+
+    @ColumnInfo(name = "movie_id")
+    private int movieId;
+
+    private int position;
+
+    @ColumnInfo(name = "genre_id")
+    private int genreId;
+
+    private String name;
+
+    @Ignore
+    public DetailGenreEntry(int movieId, int position, Genre genre) {
+        this(movieId, position, genre.getGenreId(), genre.getGenreName());
+    }
+
+    /**
+     * Constructor used by Room to create DetailGenreEntries
+     */
+    public DetailGenreEntry(int movieId, int position, int genreId, String name) {
+        this.movieId = movieId;
+        this.position = position;
+        this.genreId = genreId;
+        this.name = name;
+    }
+
+    public int getMovieId() {
+        return movieId;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public int getGenreId() {
+        return genreId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    Genre toGenre() {
+        Genre genre = new Genre();
+        genre.setGenreId(genreId);
+        genre.setGenreName(name);
+        return genre;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.android.movie.data;
+
+import android.arch.persistence.room.ColumnInfo;
+import android.arch.persistence.room.Entity;
+import android.arch.persistence.room.Ignore;
+
+import com.example.android.movie.model.Review;
+
+/**
+ * A review of a cached {@link MovieDetailEntry}, stored at its position in the response
+ */
+@Entity(tableName = "detail_review", primaryKeys = {"movie_id", "position"})
+public class DetailReviewEntry {
+
+    @ColumnInfo(name = "movie_id")
+    private int movieId;
+
+    private int position;
+
+    @ColumnInfo(name = "review_id")
+    private String reviewId;
+
+    private String author;
+
+    private String content;
+
+    private String url;
+
+    @Ignore
+    public DetailReviewEntry(int movieId, int position, Review review) {
+        this(movieId, position, review.getId(), review.getAuthor(), review.getContent(),
+                review.getUrl());
+    }
+
+    /**
+     * Constructor used by Room to create DetailReviewEntries
+     */
+    public DetailReviewEntry(int movieId, int position, String reviewId, String author,
+                             String content, String url) {
+        this.movieId = movieId;
+        this.position = position;
+        this.reviewId = reviewId;
+        this.author = author;
+        this.content = content;
+        this.url = url;
+    }
+
+    public int getMovieId() {
+        return movieId;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public String getReviewId() {
+        return reviewId;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    Review toReview() {
+        Review review = new Review();
+        review.setId(reviewId);
+        review.setAuthor(author);
+        review.setContent(content);
+        review.setUrl(url);
+        return review;
+    }
+}
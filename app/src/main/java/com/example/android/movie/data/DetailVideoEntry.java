@@ -0,0 +1,96 @@
+package com.example.android.movie.data;
+
+import android.arch.persistence.room.ColumnInfo;
+import android.arch.persistence.room.Entity;
+import android.arch.persistence.room.Ignore;
+
+import com.example.android.movie.model.Video;
+
+/**
+ * A video of a cached {@link MovieDetailEntry}, stored at its position in the response
+ */
+@Entity(tableName = "detail_video", primaryKeys = {"movie_id", "position"})
+public class DetailVideoEntry {
+
+    @ColumnInfo(name = "movie_id")
+    private int movieId;
+
+    private int position;
+
+    @ColumnInfo(name = "video_id")
+    private String videoId;
+
+    private String key;
+
+    private String name;
+
+    private String site;
+
+    private int size;
+
+    private String type;
+
+    @Ignore
+    public DetailVideoEntry(int movieId, int position, Video video) {
+        this(movieId, position, video.getVideoId(), video.getKey(), video.getName(),
+                video.getSite(), video.getSize(), video.getType());
+    }
+
+    /**
+     * Constructor used by Room to create DetailVideoEntries
+     */
+    public DetailVideoEntry(int movieId, int position, String videoId, String key, String name,
+                            String site, int size, String type) {
+        this.movieId = movieId;
+        this.position = position;
+        this.videoId = videoId;
+        this.key = key;
+        this.name = name;
+        this.site = site;
+        this.size = size;
+        this.type = type;
+    }
+
+    public int getMovieId() {
+        return movieId;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public String getVideoId() {
+        return videoId;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSite() {
+        return site;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    Video toVideo() {
+        Video video = new Video();
+        video.setVideoId(videoId);
+        video.setKey(key);
+        video.setName(name);
+        video.setSite(site);
+        video.setSize(size);
+        video.setType(type);
+        return video;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.android.movie.data;
+
+import android.arch.persistence.room.ColumnInfo;
+import android.text.TextUtils;
+
+/**
+ * The columns of a {@link MovieEntry} shown in the favorites grid. The full MovieEntry is only
+ * loaded when a favorite is opened.
+ */
+public class FavoriteGridItem {
+
+    @ColumnInfo(name = "movie_id")
+    private final int movieId;
+
+    private final String title;
+
+    @ColumnInfo(name = "poster_path")
+    private final String posterPath;
+
+    public FavoriteGridItem(int movieId, String title, String posterPath) {
+        this.movieId = movieId;
+        this.title = title;
+        this.posterPath = posterPath;
+    }
+
+    public int getMovieId() {
+        return movieId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getPosterPath() {
+        return posterPath;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FavoriteGridItem)) return false;
+        FavoriteGridItem that = (FavoriteGridItem) o;
+        return movieId == that.movieId
+                && TextUtils.equals(title, that.title)
+                && TextUtils.equals(posterPath, that.posterPath);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = movieId;
+        result = 31 * result + (title != null ? title.hashCode() : 0);
+        result = 31 * result + (posterPath != null ? posterPath.hashCode() : 0);
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.android.movie.data;
+
+import android.arch.persistence.db.SimpleSQLiteQuery;
+import android.arch.persistence.db.SupportSQLiteDatabase;
+import android.arch.persistence.db.SupportSQLiteQuery;
+
+import java.util.Locale;
+
+/**
+ * Full-text index over the favorite movies.
+ * <p>
+ * Room 1.1 has no FTS entities, so the index is an FTS4 virtual table created with raw SQL. It uses
+ * the movie table as external content and is kept in sync by triggers, so nothing but the row ids
+ * and the tokens is stored twice. Queries go through {@link MovieDao#searchFavorites}.
+ */
+final class FavoriteSearchIndex {
+
+    private static final String TABLE = "movie_fts";
+
+    private static final String[] CREATE_STATEMENTS = {
+            "CREATE VIRTUAL TABLE IF NOT EXISTS `" + TABLE + "` USING fts4("
+                    + "content=\"movie\", `title`, `original_title`, `genre`, `overview`)",
+            "CREATE TRIGGER IF NOT EXISTS `movie_fts_before_update` BEFORE UPDATE ON `movie` BEGIN "
+                    + "DELETE FROM `" + TABLE + "` WHERE docid = old.id; END",
+            "CREATE TRIGGER IF NOT EXISTS `movie_fts_before_delete` BEFORE DELETE ON `movie` BEGIN "
+                    + "DELETE FROM `" + TABLE + "` WHERE docid = old.id; END",
+            "CREATE TRIGGER IF NOT EXISTS `movie_fts_after_update` AFTER UPDATE ON `movie` BEGIN "
+                    + "INSERT INTO `" + TABLE + "`(docid, `title`, `original_title`, `genre`, `overview`) "
+                    + "VALUES (new.id, new.title, new.original_title, new.genre, new.overview); END",
+            "CREATE TRIGGER IF NOT EXISTS `movie_fts_after_insert` AFTER INSERT ON `movie` BEGIN "
+                    + "INSERT INTO `" + TABLE + "`(docid, `title`, `original_title`, `genre`, `overview`) "
+                    + "VALUES (new.id, new.title, new.original_title, new.genre, new.overview); END",
+            // Index the favorites stored before the table existed
+            "INSERT INTO `" + TABLE + "`(`" + TABLE + "`) VALUES ('rebuild')"
+    };
+
+    /**
+     * Title prefix matches rank first, then title, original title and genre matches, then the
+     * movies matching only on their overview
+     */
+    private static final String SEARCH_QUERY = "SELECT `movie`.movie_id, `movie`.title, "
+            + "`movie`.poster_path FROM `movie` "
+            + "JOIN `" + TABLE + "` ON `movie`.id = `" + TABLE + "`.docid "
+            + "WHERE `" + TABLE + "` MATCH ? "
+            + "ORDER BY CASE "
+            + "WHEN `movie`.title LIKE ? THEN 0 "
+            + "WHEN `movie`.title LIKE ? THEN 1 "
+            + "WHEN `movie`.original_title LIKE ? THEN 2 "
+            + "WHEN `movie`.genre LIKE ? THEN 3 "
+            + "ELSE 4 END, `movie`.title";
+
+    /** Matches nothing, used when the search has no words */
+    private static final String EMPTY_QUERY =
+            "SELECT movie_id, title, poster_path FROM `movie` WHERE 0";
+
+    private static final String WILDCARD = "%";
+    private static final char PREFIX = '*';
+
+    private FavoriteSearchIndex() {
+    }
+
+    /**
+     * Create the index, its triggers, and index the existing favorites
+     */
+    static void create(SupportSQLiteDatabase database) {
+        for (String statement : CREATE_STATEMENTS) {
+            database.execSQL(statement);
+        }
+    }
+
+    /**
+     * Returns the query for the favorites matching every word of the search as a prefix. A search
+     * without words matches nothing.
+     */
+    static SupportSQLiteQuery query(String search) {
+        String match = toMatchExpression(search);
+        if (match.isEmpty()) {
+            return new SimpleSQLiteQuery(EMPTY_QUERY);
+        }
+        String text = search.trim().toLowerCase(Locale.ROOT);
+        return new SimpleSQLiteQuery(SEARCH_QUERY, new Object[]{
+                match,
+                text + WILDCARD,
+                WILDCARD + text + WILDCARD,
+                WILDCARD + text + WILDCARD,
+                WILDCARD + text + WILDCARD});
+    }
+
+    /**
+     * Turn "Star wa" into "star* wa*". Everything but letters and digits separates words, so the
+     * search can't inject FTS operators.
+     */
+    static String toMatchExpression(String search) {
+        if (search == null) {
+            return "";
+        }
+        StringBuilder match = new StringBuilder();
+        int length = search.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(search.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(search.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append(search.substring(start, i).toLowerCase(Locale.ROOT))
+                        .append(PREFIX);
+            }
+        }
+        return match.toString();
+    }
+}
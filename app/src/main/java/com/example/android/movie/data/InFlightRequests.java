@@ -0,0 +1,99 @@
+package com.example.android.movie.data;
+
+import android.arch.lifecycle.LiveData;
+import android.arch.lifecycle.MutableLiveData;
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Single-flight layer for Retrofit calls. Concurrent callers asking for the same key attach to the
+ * one outstanding call and share its result LiveData, instead of each firing their own request.
+ */
+class InFlightRequests {
+
+    /** Tag for logging */
+    private static final String TAG = InFlightRequests.class.getSimpleName();
+
+    private static final String KEY_DELIMITER = ":";
+
+    /** Outstanding calls keyed by (endpoint, movieId, language) */
+    private final Map<String, MutableLiveData<?>> mInFlight = new HashMap<>();
+
+    /** The number of calls actually sent to the network */
+    private final AtomicInteger mRequestCount = new AtomicInteger();
+
+    /** The number of callers that attached to an outstanding call instead of firing a new one */
+    private final AtomicInteger mDeduplicatedCount = new AtomicInteger();
+
+    /**
+     * Returns the key identifying a request for the given endpoint, movie and language
+     */
+    static String key(String endpoint, int movieId, String language) {
+        return endpoint + KEY_DELIMITER + movieId + KEY_DELIMITER + language;
+    }
+
+    /**
+     * Enqueue the call unless a call with the same key is already outstanding, and return the
+     * LiveData the result will be posted to. The call is never executed when it's deduplicated.
+     *
+     * @param key The key returned by {@link #key(String, int, String)}
+     * @param call The Retrofit call to enqueue if nothing is in flight for the key
+     */
+    <T> LiveData<T> enqueue(final String key, Call<T> call) {
+        final MutableLiveData<T> result;
+        synchronized (mInFlight) {
+            //noinspection unchecked
+            MutableLiveData<T> inFlight = (MutableLiveData<T>) mInFlight.get(key);
+            if (inFlight != null) {
+                mDeduplicatedCount.incrementAndGet();
+                Log.d(TAG, "Attached to in-flight request " + key);
+                return inFlight;
+            }
+            result = new MutableLiveData<>();
+            mInFlight.put(key, result);
+        }
+
+        mRequestCount.incrementAndGet();
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> call, Response<T> response) {
+                complete(key);
+                if (response.isSuccessful()) {
+                    result.setValue(response.body());
+                } else {
+                    result.setValue(null);
+                    Log.e(TAG, "Response Code: " + response.code() + " for " + key);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> call, Throwable t) {
+                complete(key);
+                result.setValue(null);
+                Log.e(TAG, "Failed getting " + key + ": " + t.getMessage());
+            }
+        });
+        return result;
+    }
+
+    private void complete(String key) {
+        synchronized (mInFlight) {
+            mInFlight.remove(key);
+        }
+    }
+
+    int getRequestCount() {
+        return mRequestCount.get();
+    }
+
+    int getDeduplicatedCount() {
+        return mDeduplicatedCount.get();
+    }
+}
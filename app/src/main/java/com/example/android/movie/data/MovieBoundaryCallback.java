@@ -0,0 +1,378 @@
+package com.example.android.movie.data;
+
+import android.arch.lifecycle.LiveData;
+import android.arch.lifecycle.MutableLiveData;
+import android.arch.paging.PagedList;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+import android.util.Log;
+
+import com.example.android.movie.AppExecutors;
+import com.example.android.movie.model.Movie;
+import com.example.android.movie.model.MovieResponse;
+import com.example.android.movie.utils.IntHashSet;
+import com.example.android.movie.utils.PosterPrefetcher;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static com.example.android.movie.utils.Constant.API_KEY;
+import static com.example.android.movie.utils.Constant.BROWSE_REFRESH_INTERVAL_MILLIS;
+import static com.example.android.movie.utils.Constant.LANGUAGE;
+import static com.example.android.movie.utils.Constant.PAGE_ONE;
+import static com.example.android.movie.utils.Constant.RESPONSE_CODE_API_STATUS;
+import static com.example.android.movie.utils.Constant.RESUME_FETCH_TIMEOUT_MILLIS;
+import static com.example.android.movie.utils.Constant.RETRY_MAX_ATTEMPTS;
+import static com.example.android.movie.utils.Constant.TMDB_MAX_PAGE;
+
+/**
+ * The MovieBoundaryCallback fetches the next page of movie/{sort_criteria} from the network when
+ * the grid, which reads from the database, runs out of stored movies. Downloaded pages are written
+ * to the database and Room invalidates the grid's DataSource. No page is requested past the
+ * total_pages of the stored pages, or past an empty page. A movie already stored for the sort
+ * criteria isn't stored again when a later page repeats it. To resume the grid past the stored
+ * pages, several pages can be downloaded at once with {@link #fetchPages(int, int)}.
+ * <p>
+ * The end of the stored movies is only reported once, so a page that fails is kept and retried
+ * on its own with the same backoff as {@link MovieDataSource}. Once the retries are used up the
+ * state turns failed, and {@link #retry()} requests the page again. The retry state is only
+ * touched on the main thread, where Retrofit delivers the responses.
+ */
+public class MovieBoundaryCallback extends PagedList.BoundaryCallback<Movie> {
+
+    /** Tag for logging */
+    private static final String TAG = MovieBoundaryCallback.class.getSimpleName();
+
+    private final String mSortCriteria;
+    private final TheMovieApi mTheMovieApi;
+    private final BrowseDao mBrowseDao;
+    private final PosterPrefetcher mPosterPrefetcher;
+    private final AppExecutors mExecutors;
+
+    /** True while a page is being downloaded, so scrolling doesn't request the same page twice */
+    private final AtomicBoolean mIsRequestInProgress = new AtomicBoolean(false);
+
+    /**
+     * Ids of the stored movies of the sort criteria, loaded with the first page saved. Only
+     * touched while storing a page, which holds the lock of this callback.
+     */
+    private IntHashSet mStoredMovieIds;
+
+    /** The state of the page downloads */
+    private final MutableLiveData<NetworkState> mNetworkState = new MutableLiveData<>();
+
+    /** Posts the automatic retries */
+    private final Handler mRetryHandler = new Handler(Looper.getMainLooper());
+    private final Random mRandom = new Random();
+
+    /** The page that failed last, 0 when no page has failed */
+    private int mFailedPage;
+
+    /** The number of automatic retries of the failed page so far */
+    private int mRetryAttempt;
+
+    /** Set once the grid no longer uses this callback, so no retry is sent */
+    private volatile boolean mIsCancelled;
+
+    /** Runs the automatic retry of the failed page */
+    private final Runnable mScheduledRetry = new Runnable() {
+        @Override
+        public void run() {
+            retryFailedPage();
+        }
+    };
+
+    MovieBoundaryCallback(String sortCriteria, TheMovieApi theMovieApi, BrowseDao browseDao,
+                          PosterPrefetcher posterPrefetcher, AppExecutors executors) {
+        mSortCriteria = sortCriteria;
+        mTheMovieApi = theMovieApi;
+        mBrowseDao = browseDao;
+        mPosterPrefetcher = posterPrefetcher;
+        mExecutors = executors;
+    }
+
+    /**
+     * Returns the sort criteria whose pages are fetched
+     */
+    String getSortCriteria() {
+        return mSortCriteria;
+    }
+
+    /**
+     * Called when the database has no movies for the sort criteria
+     */
+    @Override
+    public void onZeroItemsLoaded() {
+        requestPage(PAGE_ONE);
+    }
+
+    /**
+     * Called when the last stored movie has been loaded into the PagedList
+     */
+    @Override
+    public void onItemAtEndLoaded(@NonNull Movie itemAtEnd) {
+        mExecutors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                BrowsePageEntry lastPage = mBrowseDao.loadLastPage(mSortCriteria);
+                if (lastPage == null) {
+                    requestPage(PAGE_ONE);
+                } else if (lastPage.getPage()
+                        < Math.min(lastPage.getTotalPages(), TMDB_MAX_PAGE)) {
+                    requestPage(lastPage.getPage() + 1);
+                }
+            }
+        });
+    }
+
+    /**
+     * When the stored first page is older than the refresh interval, download it again and
+     * replace the stored pages. The stored catalog is kept until the new page arrives, so it is
+     * still available offline.
+     */
+    void refreshIfStale() {
+        mExecutors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                BrowsePageEntry firstPage = mBrowseDao.loadPage(mSortCriteria, PAGE_ONE);
+                if (firstPage != null && firstPage.getFetchedAt() != null
+                        && System.currentTimeMillis() - firstPage.getFetchedAt().getTime()
+                        > BROWSE_REFRESH_INTERVAL_MILLIS) {
+                    requestPage(PAGE_ONE);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the LiveData of the state of the page downloads. While a failed page is waiting for
+     * an automatic retry the state stays loading, it only turns failed once the retries are used
+     * up and the page can be requested again with {@link #retry()}.
+     */
+    public LiveData<NetworkState> getNetworkState() {
+        return mNetworkState;
+    }
+
+    /**
+     * Request the page that failed last again, without waiting for the automatic retry
+     */
+    @MainThread
+    public void retry() {
+        mRetryHandler.removeCallbacks(mScheduledRetry);
+        mRetryAttempt = 0;
+        retryFailedPage();
+    }
+
+    /**
+     * Stop retrying, once the grid is switched to another list
+     */
+    @MainThread
+    public void cancel() {
+        mIsCancelled = true;
+        mRetryHandler.removeCallbacks(mScheduledRetry);
+    }
+
+    @MainThread
+    private void retryFailedPage() {
+        int page = mFailedPage;
+        mFailedPage = 0;
+        if (page != 0 && !mIsCancelled) {
+            requestPage(page);
+        }
+    }
+
+    private void requestPage(final int page) {
+        if (mIsCancelled || !mIsRequestInProgress.compareAndSet(false, true)) {
+            return;
+        }
+
+        mNetworkState.postValue(NetworkState.LOADING);
+        mTheMovieApi.getMovies(mSortCriteria, API_KEY, LANGUAGE, page)
+                .enqueue(new Callback<MovieResponse>() {
+                    @Override
+                    public void onResponse(Call<MovieResponse> call, Response<MovieResponse> response) {
+                        if (response.isSuccessful() && response.body() != null) {
+                            // The first page is bound right away, later pages are loaded ahead
+                            if (page > PAGE_ONE) {
+                                mPosterPrefetcher.prefetch(response.body().getMovieResults());
+                            }
+                            mRetryAttempt = 0;
+                            mNetworkState.postValue(NetworkState.LOADED);
+                            savePage(page, response.body());
+                        } else if (response.code() == RESPONSE_CODE_API_STATUS) {
+                            onPageFailed(page,
+                                    "Invalid Api key. Response code: " + response.code(), false);
+                        } else {
+                            onPageFailed(page, "Response Code: " + response.code(),
+                                    MovieDataSource.isRetryable(response.code()));
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<MovieResponse> call, Throwable t) {
+                        onPageFailed(page, "Failed fetching page " + page + ": " + t.getMessage(),
+                                true);
+                    }
+                });
+    }
+
+    /**
+     * Keep the page to request it again, and schedule the retry while the error may go away and
+     * attempts are left. Otherwise report the failure.
+     */
+    @MainThread
+    private void onPageFailed(int page, String message, boolean retryable) {
+        mIsRequestInProgress.set(false);
+        mFailedPage = page;
+        if (mIsCancelled) {
+            return;
+        }
+        if (retryable && mRetryAttempt < RETRY_MAX_ATTEMPTS) {
+            long delay = MovieDataSource.backoffDelayMillis(mRetryAttempt++, mRandom);
+            Log.e(TAG, message + ", retrying in " + delay + " ms");
+            mRetryHandler.postDelayed(mScheduledRetry, delay);
+        } else {
+            Log.e(TAG, message);
+            mNetworkState.postValue(NetworkState.failed(message));
+        }
+    }
+
+    /**
+     * Returns the ids of the stored movies, loading them the first time
+     *
+     * @param isReplaced True when the stored pages are about to be replaced by a first page
+     */
+    @WorkerThread
+    private IntHashSet getStoredMovieIds(boolean isReplaced) {
+        if (mStoredMovieIds == null) {
+            mStoredMovieIds = new IntHashSet();
+            if (!isReplaced) {
+                for (int movieId : mBrowseDao.loadMovieIds(mSortCriteria)) {
+                    mStoredMovieIds.add(movieId);
+                }
+            }
+        } else if (isReplaced) {
+            mStoredMovieIds.clear();
+        }
+        return mStoredMovieIds;
+    }
+
+    /**
+     * Download the pages from the first to the last one in parallel, and store them in order once
+     * they have all arrived. Pages after one that failed or timed out aren't stored, so the
+     * stored pages stay contiguous.
+     *
+     * @param fromPage The page after the last stored one
+     * @param toPage The last page to download
+     * @return The number of pages stored
+     */
+    @WorkerThread
+    int fetchPages(final int fromPage, int toPage) {
+        int pageCount = toPage - fromPage + 1;
+        if (pageCount <= 0) {
+            return 0;
+        }
+        final AtomicReferenceArray<MovieResponse> responses =
+                new AtomicReferenceArray<>(pageCount);
+        final CountDownLatch latch = new CountDownLatch(pageCount);
+        List<Call<MovieResponse>> calls = new ArrayList<>(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            final int index = i;
+            Call<MovieResponse> call = mTheMovieApi.getMovies(mSortCriteria, API_KEY, LANGUAGE,
+                    fromPage + i);
+            calls.add(call);
+            call.enqueue(new Callback<MovieResponse>() {
+                @Override
+                public void onResponse(Call<MovieResponse> call, Response<MovieResponse> response) {
+                    if (response.isSuccessful()) {
+                        responses.set(index, response.body());
+                    } else {
+                        Log.e(TAG, "Response Code: " + response.code());
+                    }
+                    latch.countDown();
+                }
+
+                @Override
+                public void onFailure(Call<MovieResponse> call, Throwable t) {
+                    Log.e(TAG, "Failed fetching page " + (fromPage + index) + ": "
+                            + t.getMessage());
+                    latch.countDown();
+                }
+            });
+        }
+
+        try {
+            if (!latch.await(RESUME_FETCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                Log.e(TAG, "Timed out fetching pages " + fromPage + " to " + toPage);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Call<MovieResponse> call : calls) {
+            call.cancel();
+        }
+
+        int storedCount = 0;
+        while (storedCount < pageCount && responses.get(storedCount) != null) {
+            storePage(fromPage + storedCount, responses.get(storedCount));
+            storedCount++;
+        }
+        return storedCount;
+    }
+
+    private void savePage(final int page, final MovieResponse movieResponse) {
+        mExecutors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                storePage(page, movieResponse);
+                mIsRequestInProgress.set(false);
+            }
+        });
+    }
+
+    @WorkerThread
+    private synchronized void storePage(int page, MovieResponse movieResponse) {
+        List<Movie> results = movieResponse.getMovieResults();
+        List<BrowseMovieEntry> movies = new ArrayList<>();
+        IntHashSet storedMovieIds = getStoredMovieIds(page == PAGE_ONE);
+        int repeatCount = 0;
+        if (results != null) {
+            for (int i = 0; i < results.size(); i++) {
+                Movie movie = results.get(i);
+                // Rankings shift between requests, skip the movies an earlier page had
+                if (storedMovieIds.add(movie.getId())) {
+                    movies.add(new BrowseMovieEntry(mSortCriteria, page, movies.size(), movie));
+                } else {
+                    repeatCount++;
+                }
+            }
+        }
+        if (repeatCount > 0) {
+            Log.d(TAG, "Skipped " + repeatCount + " repeated movies of page " + page);
+        }
+
+        // An empty page is stored as the last one, so the pages after it aren't requested
+        int totalPages = results == null || results.isEmpty()
+                ? page : movieResponse.getTotalPages();
+        BrowsePageEntry pageEntry = new BrowsePageEntry(mSortCriteria, page, totalPages,
+                movieResponse.getTotalResults(), new Date());
+        if (page == PAGE_ONE) {
+            mBrowseDao.replaceWithFirstPage(pageEntry, movies);
+        } else {
+            mBrowseDao.insertPage(pageEntry, movies);
+        }
+    }
+}
@@ -1,28 +1,79 @@
 package com.example.android.movie.data;
 
 import android.arch.lifecycle.LiveData;
+import android.arch.paging.DataSource;
+import android.arch.persistence.db.SupportSQLiteQuery;
 import android.arch.persistence.room.Dao;
 import android.arch.persistence.room.Delete;
 import android.arch.persistence.room.Insert;
+import android.arch.persistence.room.OnConflictStrategy;
 import android.arch.persistence.room.Query;
+import android.arch.persistence.room.RawQuery;
+import android.arch.persistence.room.Transaction;
 
 import java.util.List;
 
 /**
  * {@link Dao} which provides an API for all data operations with the MovieDatabase.
+ * <p>
+ * This is an abstract class rather than an interface so upserts can run in a single
+ * {@link Transaction}.
  */
 @Dao
-public interface MovieDao {
+public abstract class MovieDao {
 
-    @Query("SELECT * FROM movie")
-    LiveData<List<MovieEntry>> loadAllMovies();
+    /**
+     * Returns the columns of the favorites grid, most recently added first
+     */
+    @Query("SELECT movie_id, title, poster_path FROM movie ORDER BY date DESC")
+    public abstract DataSource.Factory<Integer, FavoriteGridItem> loadFavoriteGridItems();
 
-    @Insert
-    void insertMovie(MovieEntry movieEntry);
+    /**
+     * Insert the movie, replacing a favorite with the same movie_id. Prefer
+     * {@link #upsertMovie(MovieEntry)}: SQLite doesn't fire delete triggers for rows removed by
+     * REPLACE, so the replaced row would stay in the full-text index.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insertMovie(MovieEntry movieEntry);
 
     @Delete
-    void deleteMovie(MovieEntry movieEntry);
+    public abstract void deleteMovie(MovieEntry movieEntry);
+
+    @Delete
+    public abstract void deleteMovies(List<MovieEntry> movieEntries);
+
+    @Query("DELETE FROM movie WHERE movie_id = :movieId")
+    public abstract void deleteMovieByMovieId(int movieId);
 
     @Query("SELECT * FROM movie WHERE movie_id = :movieId")
-    LiveData<MovieEntry> loadMovieByMovieId(int movieId);
+    public abstract LiveData<MovieEntry> loadMovieByMovieId(int movieId);
+
+    /**
+     * Insert the movie, or replace the favorite with the same movie_id, so a double tap can't
+     * store the movie twice
+     */
+    @Transaction
+    public void upsertMovie(MovieEntry movieEntry) {
+        deleteMovieByMovieId(movieEntry.getMovieId());
+        insertMovie(movieEntry);
+    }
+
+    /**
+     * Upsert all the movies in a single transaction
+     */
+    @Transaction
+    public void upsertMovies(List<MovieEntry> movieEntries) {
+        for (MovieEntry movieEntry : movieEntries) {
+            upsertMovie(movieEntry);
+        }
+    }
+
+    /**
+     * Returns the ranked favorites matching a full-text query built by
+     * {@link FavoriteSearchIndex#query(String)}. The index table isn't known to Room, so the query
+     * can't be checked at compile time.
+     */
+    @RawQuery(observedEntities = MovieEntry.class)
+    public abstract DataSource.Factory<Integer, FavoriteGridItem> searchFavorites(
+            SupportSQLiteQuery query);
 }
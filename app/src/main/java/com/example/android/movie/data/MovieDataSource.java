@@ -1,33 +1,67 @@
 package com.example.android.movie.data;
 
+import android.arch.lifecycle.LiveData;
+import android.arch.lifecycle.MutableLiveData;
 import android.arch.paging.PageKeyedDataSource;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
 import android.util.Log;
 
 import com.example.android.movie.model.Movie;
 import com.example.android.movie.model.MovieResponse;
 import com.example.android.movie.utils.Constant;
-import com.example.android.movie.utils.Controller;
+import com.example.android.movie.utils.IntHashSet;
+import com.example.android.movie.utils.PosterPrefetcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
 
-import static com.example.android.movie.utils.Constant.NEXT_PAGE_KEY_TWO;
 import static com.example.android.movie.utils.Constant.PREVIOUS_PAGE_KEY_ONE;
 import static com.example.android.movie.utils.Constant.RESPONSE_CODE_API_STATUS;
+import static com.example.android.movie.utils.Constant.RESPONSE_CODE_SERVER_ERROR;
+import static com.example.android.movie.utils.Constant.RESPONSE_CODE_TOO_MANY_REQUESTS;
+import static com.example.android.movie.utils.Constant.RETRY_BASE_DELAY_MILLIS;
+import static com.example.android.movie.utils.Constant.RETRY_MAX_ATTEMPTS;
+import static com.example.android.movie.utils.Constant.RETRY_MAX_DELAY_MILLIS;
+import static com.example.android.movie.utils.Constant.TMDB_MAX_PAGE;
 
 /**
  * The MovieDataSource is the base class for loading snapshots of movie data into a given PagedList,
  * which is backed by the network. Since the TMDb API includes a key with each page load, extend
  * from PageKeyedDataSource.
- *
+ * <p>
+ * Invalidating the data source cancels its outstanding calls, and responses arriving after that
+ * are dropped, so a superseded search can't deliver results to the new list.
+ * <p>
+ * A page that fails with a network error, a server error or a rate limit is retried on its own
+ * with a jittered exponential backoff. The state of the loads is exposed with
+ * {@link #getNetworkState()}, and {@link #retry()} loads the failed page again from its key
+ * instead of invalidating the whole list. The retry state is only touched on the main thread,
+ * where Retrofit delivers the responses.
+ * <p>
+ * Paging stops at total_pages, or at the first empty page. Movies already emitted by the data
+ * source are dropped from the pages that follow. The list is sized by the movies delivered, not
+ * by total_results, which counts the dropped repeats and can be wrong, so it never ends on blank
+ * placeholders.
  */
 public class MovieDataSource extends PageKeyedDataSource<Integer, Movie> {
 
     /** Tag for logging */
     private static final String TAG = MovieDataSource.class.getSimpleName();
 
+    /** Caps the doubling of the backoff delay, so it can't overflow */
+    private static final int MAX_BACKOFF_SHIFT = 16;
+
     /** Member variable for TheMovieApi interface */
     private TheMovieApi mTheMovieApi;
 
@@ -37,59 +71,103 @@ public class MovieDataSource extends PageKeyedDataSource<Integer, Movie> {
     /** String for searching online the movies */
     private String mSearch;
 
-    public MovieDataSource(String sortCriteria, String search) {
-        mTheMovieApi = Controller.getClient().create(TheMovieApi.class);
+    /** The normalized search, so the cached pages are shared by the ways of typing it */
+    private String mSearchKey;
+
+    /** Recently fetched search pages, shared by all the search data sources */
+    private final SearchResultCache mSearchResultCache;
+
+    /** Downloads the posters of the pages appended ahead of the grid */
+    private final PosterPrefetcher mPosterPrefetcher;
+
+    /** Ids of the movies this data source has emitted, so a movie is only shown once */
+    private final IntHashSet mEmittedMovieIds = new IntHashSet();
+
+    /** Calls that have been enqueued and haven't completed yet */
+    private final Set<Call<MovieResponse>> mPendingCalls = new HashSet<>();
+
+    /** The state of the network loads */
+    private final MutableLiveData<NetworkState> mNetworkState = new MutableLiveData<>();
+
+    /** Posts the automatic retries */
+    private final Handler mRetryHandler = new Handler(Looper.getMainLooper());
+    private final Random mRandom = new Random();
+
+    /** Loads the page that failed last again, null when no page has failed */
+    private Runnable mRetry;
+
+    /** The number of automatic retries of the failed page so far */
+    private int mRetryAttempt;
+
+    /** Runs the automatic retry of the failed page */
+    private final Runnable mScheduledRetry = new Runnable() {
+        @Override
+        public void run() {
+            Runnable retry = mRetry;
+            mRetry = null;
+            if (retry != null && !isInvalid()) {
+                retry.run();
+            }
+        }
+    };
+
+    public MovieDataSource(TheMovieApi theMovieApi, SearchResultCache searchResultCache,
+                           PosterPrefetcher posterPrefetcher, String sortCriteria, String search,
+                           String searchKey) {
+        mTheMovieApi = theMovieApi;
+        mSearchResultCache = searchResultCache;
+        mPosterPrefetcher = posterPrefetcher;
         mSortCriteria = sortCriteria;
         mSearch = search;
+        mSearchKey = searchKey;
+
+        addInvalidatedCallback(new InvalidatedCallback() {
+            @Override
+            public void onInvalidated() {
+                cancelPendingCalls();
+                mRetryHandler.removeCallbacks(mScheduledRetry);
+            }
+        });
     }
 
     /**
      * This method is called first to initialize a PageList with data.
      */
     @Override
-    public void loadInitial(@NonNull LoadInitialParams<Integer> params,
+    public void loadInitial(@NonNull final LoadInitialParams<Integer> params,
                             @NonNull final LoadInitialCallback<Integer, Movie> callback) {
 
-        if (mSearch == null || mSearch.isEmpty()) {
-            mTheMovieApi.getMovies(mSortCriteria, Constant.API_KEY, Constant.LANGUAGE, Constant.PAGE_ONE)
-                    .enqueue(new Callback<MovieResponse>() {
-                        @Override
-                        public void onResponse(Call<MovieResponse> call, Response<MovieResponse> response) {
-                            if (response.isSuccessful()) {
-                                callback.onResult(response.body().getMovieResults(),
-                                        PREVIOUS_PAGE_KEY_ONE, NEXT_PAGE_KEY_TWO);
-
-                            } else if (response.code() == RESPONSE_CODE_API_STATUS) {
-                                Log.e(TAG, "Invalid Api key. Response code: " + response.code());
-                            } else {
-                                Log.e(TAG, "Response Code: " + response.code());
-                            }
-                        }
+        Runnable retry = new Runnable() {
+            @Override
+            public void run() {
+                loadInitial(params, callback);
+            }
+        };
 
+        if (mSearch == null || mSearch.isEmpty()) {
+            mNetworkState.postValue(NetworkState.LOADING);
+            enqueue(mTheMovieApi.getMovies(mSortCriteria, Constant.API_KEY, Constant.LANGUAGE, Constant.PAGE_ONE),
+                    new PageCallback(retry) {
                         @Override
-                        public void onFailure(Call<MovieResponse> call, Throwable t) {
-                            Log.e(TAG, "Failed initializing a PageList: " + t.getMessage());
+                        void onPage(MovieResponse movieResponse) {
+                            onFirstPage(movieResponse, callback);
                         }
                     });
         }else {
-            mTheMovieApi.getMoviesBySearch(Constant.API_KEY, Constant.LANGUAGE, Constant.PAGE_ONE, mSearch)
-                    .enqueue(new Callback<MovieResponse>() {
-                        @Override
-                        public void onResponse(Call<MovieResponse> call, Response<MovieResponse> response) {
-                            if (response.isSuccessful()) {
-                                callback.onResult(response.body().getMovieResults(),
-                                        PREVIOUS_PAGE_KEY_ONE, NEXT_PAGE_KEY_TWO);
-
-                            } else if (response.code() == RESPONSE_CODE_API_STATUS) {
-                                Log.e(TAG, "Invalid Api key. Response code: " + response.code());
-                            } else {
-                                Log.e(TAG, "Response Code: " + response.code());
-                            }
-                        }
+            MovieResponse cached = mSearchResultCache.get(mSearchKey, Constant.PAGE_ONE);
+            if (cached != null) {
+                mNetworkState.postValue(NetworkState.LOADED);
+                onFirstPage(cached, callback);
+                return;
+            }
 
+            mNetworkState.postValue(NetworkState.LOADING);
+            enqueue(mTheMovieApi.getMoviesBySearch(Constant.API_KEY, Constant.LANGUAGE, Constant.PAGE_ONE, mSearch),
+                    new PageCallback(retry) {
                         @Override
-                        public void onFailure(Call<MovieResponse> call, Throwable t) {
-                            Log.e(TAG, "Failed initializing a PageList: " + t.getMessage());
+                        void onPage(MovieResponse movieResponse) {
+                            mSearchResultCache.put(mSearchKey, Constant.PAGE_ONE, movieResponse);
+                            onFirstPage(movieResponse, callback);
                         }
                     });
         }
@@ -108,45 +186,284 @@ public class MovieDataSource extends PageKeyedDataSource<Integer, Movie> {
      * Append page with the key specified by LoadParams.key
      */
     @Override
-    public void loadAfter(@NonNull LoadParams<Integer> params,
+    public void loadAfter(@NonNull final LoadParams<Integer> params,
                           @NonNull final LoadCallback<Integer, Movie> callback) {
 
         final int currentPage = params.key;
+        Runnable retry = new Runnable() {
+            @Override
+            public void run() {
+                loadAfter(params, callback);
+            }
+        };
 
         if (mSearch == null || mSearch.isEmpty()) {
-            mTheMovieApi.getMovies(mSortCriteria, Constant.API_KEY, Constant.LANGUAGE, currentPage)
-                    .enqueue(new Callback<MovieResponse>() {
+            mNetworkState.postValue(NetworkState.LOADING);
+            enqueue(mTheMovieApi.getMovies(mSortCriteria, Constant.API_KEY, Constant.LANGUAGE, currentPage),
+                    new PageCallback(retry) {
                         @Override
-                        public void onResponse(Call<MovieResponse> call, Response<MovieResponse> response) {
-                            if (response.isSuccessful()) {
-                                int nextKey = currentPage + 1;
-                                callback.onResult(response.body().getMovieResults(), nextKey);
-                            }
-                        }
-
-                        @Override
-                        public void onFailure(Call<MovieResponse> call, Throwable t) {
-                            Log.e(TAG, "Failed appending page: " + t.getMessage());
+                        void onPage(MovieResponse movieResponse) {
+                            mPosterPrefetcher.prefetch(movieResponse.getMovieResults());
+                            onNextPage(currentPage, movieResponse, params, callback);
                         }
                     });
 
         }else {
-            mTheMovieApi.getMoviesBySearch(Constant.API_KEY, Constant.LANGUAGE, currentPage,mSearch)
-                    .enqueue(new Callback<MovieResponse>() {
-                        @Override
-                        public void onResponse(Call<MovieResponse> call, Response<MovieResponse> response) {
-                            if (response.isSuccessful()) {
-                                int nextKey = currentPage + 1;
-                                callback.onResult(response.body().getMovieResults(), nextKey);
-                            }
-                        }
+            MovieResponse cached = mSearchResultCache.get(mSearchKey, currentPage);
+            if (cached != null) {
+                mNetworkState.postValue(NetworkState.LOADED);
+                onNextPage(currentPage, cached, params, callback);
+                return;
+            }
 
+            mNetworkState.postValue(NetworkState.LOADING);
+            enqueue(mTheMovieApi.getMoviesBySearch(Constant.API_KEY, Constant.LANGUAGE, currentPage,mSearch),
+                    new PageCallback(retry) {
                         @Override
-                        public void onFailure(Call<MovieResponse> call, Throwable t) {
-                            Log.e(TAG, "Failed appending page: " + t.getMessage());
+                        void onPage(MovieResponse movieResponse) {
+                            mSearchResultCache.put(mSearchKey, currentPage, movieResponse);
+                            mPosterPrefetcher.prefetch(movieResponse.getMovieResults());
+                            onNextPage(currentPage, movieResponse, params, callback);
                         }
                     });
         }
 
     }
+
+    /**
+     * Deliver the first page
+     */
+    private void onFirstPage(MovieResponse movieResponse,
+                             LoadInitialCallback<Integer, Movie> callback) {
+        List<Movie> results = removeEmitted(getResults(movieResponse));
+        callback.onResult(results, PREVIOUS_PAGE_KEY_ONE,
+                nextKey(Constant.PAGE_ONE, movieResponse));
+    }
+
+    /**
+     * Returns the movies of the page, empty rather than null
+     */
+    private static List<Movie> getResults(MovieResponse movieResponse) {
+        List<Movie> results = movieResponse.getMovieResults();
+        return results == null ? Collections.<Movie>emptyList() : results;
+    }
+
+    /**
+     * Deliver an appended page without the movies already emitted. When every movie of the page
+     * is a repeat, the page after it is loaded instead, as an empty page would stop the paging.
+     */
+    private void onNextPage(int page, MovieResponse movieResponse, LoadParams<Integer> params,
+                            LoadCallback<Integer, Movie> callback) {
+        List<Movie> movies = removeEmitted(getResults(movieResponse));
+        Integer nextKey = nextKey(page, movieResponse);
+        if (movies.isEmpty() && nextKey != null) {
+            loadAfter(new LoadParams<Integer>(nextKey, params.requestedLoadSize), callback);
+            return;
+        }
+        callback.onResult(movies, nextKey);
+    }
+
+    /**
+     * Returns the movies of the page that haven't been emitted by this data source yet, and
+     * remembers them as emitted. TMDb rankings shift between page requests, so a movie can come
+     * back on the next page.
+     */
+    private List<Movie> removeEmitted(List<Movie> movies) {
+        List<Movie> newMovies;
+        synchronized (mEmittedMovieIds) {
+            newMovies = removeRepeats(movies, mEmittedMovieIds);
+        }
+        if (newMovies.size() < movies.size()) {
+            Log.d(TAG, "Dropped " + (movies.size() - newMovies.size()) + " repeated movies");
+        }
+        return newMovies;
+    }
+
+    /**
+     * Returns the movies whose ids aren't in the set yet, and adds their ids to it. The list
+     * itself is returned when none of its movies is a repeat.
+     */
+    static List<Movie> removeRepeats(List<Movie> movies, IntHashSet seenIds) {
+        List<Movie> newMovies = null;
+        for (int i = 0; i < movies.size(); i++) {
+            Movie movie = movies.get(i);
+            boolean isNew = seenIds.add(movie.getId());
+            if (!isNew && newMovies == null) {
+                newMovies = new ArrayList<>(movies.subList(0, i));
+            } else if (isNew && newMovies != null) {
+                newMovies.add(movie);
+            }
+        }
+        return newMovies == null ? movies : newMovies;
+    }
+
+    /**
+     * Returns the key of the page after the given one, or null when the page is the last one that
+     * can be requested or came back empty, so no request is made for pages known to be empty
+     */
+    static Integer nextKey(int page, MovieResponse movieResponse) {
+        if (getResults(movieResponse).isEmpty()) {
+            return null;
+        }
+        int lastPage = Math.min(movieResponse.getTotalPages(), TMDB_MAX_PAGE);
+        return page < lastPage ? page + 1 : null;
+    }
+
+    /**
+     * Returns the LiveData of the state of the network loads. While a failed page is waiting for
+     * an automatic retry the state stays loading, it only turns failed once the data source gives
+     * up and the page can be loaded again with {@link #retry()}.
+     */
+    public LiveData<NetworkState> getNetworkState() {
+        return mNetworkState;
+    }
+
+    /**
+     * Load the page that failed last again, with the same key, without waiting for the automatic
+     * retry. The pages already loaded are kept.
+     */
+    @MainThread
+    public void retry() {
+        mRetryHandler.removeCallbacks(mScheduledRetry);
+        mRetryAttempt = 0;
+        Runnable retry = mRetry;
+        mRetry = null;
+        if (retry != null && !isInvalid()) {
+            retry.run();
+        }
+    }
+
+    /**
+     * Returns the delay before the automatic retry following the given number of attempts. The
+     * delay doubles with each attempt up to a maximum, then a random part of its second half is
+     * dropped, so the clients that failed together don't all retry at the same time.
+     */
+    static long backoffDelayMillis(int attempt, Random random) {
+        long delay = Math.min(RETRY_MAX_DELAY_MILLIS,
+                RETRY_BASE_DELAY_MILLIS << Math.min(attempt, MAX_BACKOFF_SHIFT));
+        long half = delay / 2;
+        return half + (long) (random.nextDouble() * half);
+    }
+
+    /**
+     * Returns true when a request that failed with the response code may succeed later
+     */
+    static boolean isRetryable(int responseCode) {
+        return responseCode == RESPONSE_CODE_TOO_MANY_REQUESTS
+                || responseCode >= RESPONSE_CODE_SERVER_ERROR;
+    }
+
+    @MainThread
+    private void onLoaded() {
+        mRetryAttempt = 0;
+        mRetry = null;
+        mNetworkState.setValue(NetworkState.LOADED);
+    }
+
+    /**
+     * Keep the load to retry it, and schedule the retry while the error may go away and attempts
+     * are left. Otherwise report the failure.
+     */
+    @MainThread
+    private void onLoadFailed(String message, boolean retryable, Runnable retry) {
+        mRetry = retry;
+        if (retryable && mRetryAttempt < RETRY_MAX_ATTEMPTS) {
+            long delay = backoffDelayMillis(mRetryAttempt++, mRandom);
+            Log.e(TAG, message + ", retrying in " + delay + " ms");
+            mRetryHandler.postDelayed(mScheduledRetry, delay);
+        } else {
+            Log.e(TAG, message);
+            mNetworkState.setValue(NetworkState.failed(message));
+        }
+    }
+
+    /**
+     * Enqueue the call and keep track of it until it completes. The callback isn't invoked for
+     * calls completing after the data source has been invalidated.
+     */
+    private void enqueue(final Call<MovieResponse> call, final Callback<MovieResponse> callback) {
+        synchronized (mPendingCalls) {
+            if (isInvalid()) {
+                return;
+            }
+            mPendingCalls.add(call);
+        }
+
+        call.enqueue(new Callback<MovieResponse>() {
+            @Override
+            public void onResponse(Call<MovieResponse> call, Response<MovieResponse> response) {
+                if (complete(call)) {
+                    callback.onResponse(call, response);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<MovieResponse> call, Throwable t) {
+                if (complete(call)) {
+                    callback.onFailure(call, t);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stop tracking the call.
+     *
+     * @return true when the response should be delivered, false when it belongs to a data source
+     * that has been invalidated since
+     */
+    private boolean complete(Call<MovieResponse> call) {
+        synchronized (mPendingCalls) {
+            mPendingCalls.remove(call);
+        }
+        if (isInvalid()) {
+            Log.d(TAG, "Dropped response for invalidated search: " + mSearch);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Handles the response of a page: a success is passed to {@link #onPage(MovieResponse)}, a
+     * failure is kept to be retried.
+     */
+    private abstract class PageCallback implements Callback<MovieResponse> {
+
+        private final Runnable mRetry;
+
+        PageCallback(Runnable retry) {
+            mRetry = retry;
+        }
+
+        abstract void onPage(MovieResponse movieResponse);
+
+        @Override
+        public void onResponse(Call<MovieResponse> call, Response<MovieResponse> response) {
+            if (response.isSuccessful() && response.body() != null) {
+                onLoaded();
+                onPage(response.body());
+            } else if (response.isSuccessful()) {
+                onLoadFailed("Empty response body", true, mRetry);
+            } else if (response.code() == RESPONSE_CODE_API_STATUS) {
+                onLoadFailed("Invalid Api key. Response code: " + response.code(), false, mRetry);
+            } else {
+                onLoadFailed("Response Code: " + response.code(), isRetryable(response.code()),
+                        mRetry);
+            }
+        }
+
+        @Override
+        public void onFailure(Call<MovieResponse> call, Throwable t) {
+            onLoadFailed("Failed loading a page: " + t.getMessage(), true, mRetry);
+        }
+    }
+
+    private void cancelPendingCalls() {
+        synchronized (mPendingCalls) {
+            for (Call<MovieResponse> call : mPendingCalls) {
+                call.cancel();
+            }
+            mPendingCalls.clear();
+        }
+    }
 }
@@ -2,37 +2,105 @@ package com.example.android.movie.data;
 
 import android.arch.lifecycle.MutableLiveData;
 import android.arch.paging.DataSource;
+import android.arch.paging.PageKeyedDataSource;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
 
 import com.example.android.movie.model.Movie;
+import com.example.android.movie.utils.PosterPrefetcher;
+
+import java.util.Collections;
 
 /**
  * The MovieDataSourceFactory is responsible for creating a DataSource.
+ * <p>
+ * Once cancelled, the factory only creates empty data sources. Invalidating the current data
+ * source makes a LivePagedList that is still observed create a new one right away, which must not
+ * send a request for the superseded search.
  */
 public class MovieDataSourceFactory extends DataSource.Factory<Integer, Movie> {
 
     private MutableLiveData<MovieDataSource> mPostLiveData;
     private MovieDataSource mMovieDataSource;
+    private TheMovieApi mTheMovieApi;
+    private SearchResultCache mSearchResultCache;
+    private PosterPrefetcher mPosterPrefetcher;
     private String mSortBy;
     private String mSearch;
+    private String mSearchKey;
+    private volatile boolean mIsCancelled;
 
-    public MovieDataSourceFactory(String sortBy, String search) {
+    public MovieDataSourceFactory(TheMovieApi theMovieApi, SearchResultCache searchResultCache,
+                                  PosterPrefetcher posterPrefetcher, String sortBy, String search,
+                                  String searchKey) {
         mPostLiveData = new MutableLiveData<>();
+        mTheMovieApi = theMovieApi;
+        mSearchResultCache = searchResultCache;
+        mPosterPrefetcher = posterPrefetcher;
         mSortBy = sortBy;
         mSearch = search;
+        mSearchKey = searchKey;
     }
 
     @Override
     public DataSource<Integer, Movie> create() {
-        mMovieDataSource = new MovieDataSource(mSortBy,mSearch);
+        if (mIsCancelled) {
+            return new EmptyDataSource();
+        }
+        mMovieDataSource = new MovieDataSource(mTheMovieApi, mSearchResultCache, mPosterPrefetcher,
+                mSortBy, mSearch, mSearchKey);
 
-        // Keep reference to the data source with a MutableLiveData reference
-        mPostLiveData = new MutableLiveData<>();
+        // Keep reference to the data source with a MutableLiveData reference. The same LiveData
+        // is kept, so observers follow the data source across invalidations.
         mPostLiveData.postValue(mMovieDataSource);
 
         return mMovieDataSource;
     }
 
+    /**
+     * Invalidate the current data source, cancelling its outstanding calls. The data sources
+     * created afterwards are empty and make no request.
+     */
+    public void cancel() {
+        mIsCancelled = true;
+        if (mMovieDataSource != null) {
+            mMovieDataSource.invalidate();
+        }
+    }
+
+    /**
+     * Load the failed page of the current data source again
+     */
+    @MainThread
+    public void retry() {
+        if (mMovieDataSource != null) {
+            mMovieDataSource.retry();
+        }
+    }
+
     public MutableLiveData<MovieDataSource> getPostLiveData() {
         return mPostLiveData;
     }
+
+    /**
+     * A data source without movies, created for a cancelled search
+     */
+    private static class EmptyDataSource extends PageKeyedDataSource<Integer, Movie> {
+
+        @Override
+        public void loadInitial(@NonNull LoadInitialParams<Integer> params,
+                                @NonNull LoadInitialCallback<Integer, Movie> callback) {
+            callback.onResult(Collections.<Movie>emptyList(), null, null);
+        }
+
+        @Override
+        public void loadBefore(@NonNull LoadParams<Integer> params,
+                               @NonNull LoadCallback<Integer, Movie> callback) {
+        }
+
+        @Override
+        public void loadAfter(@NonNull LoadParams<Integer> params,
+                              @NonNull LoadCallback<Integer, Movie> callback) {
+        }
+    }
 }
@@ -1,9 +1,11 @@
 package com.example.android.movie.data;
 
+import android.arch.persistence.db.SupportSQLiteDatabase;
 import android.arch.persistence.room.Database;
 import android.arch.persistence.room.Room;
 import android.arch.persistence.room.RoomDatabase;
 import android.arch.persistence.room.TypeConverters;
+import android.arch.persistence.room.migration.Migration;
 import android.content.Context;
 import android.util.Log;
 
@@ -11,10 +13,18 @@ import static com.example.android.movie.utils.Constant.DATABASE_NAME;
 
 /**
  * {@link MovieDatabase} database for the application including a table for {@link MovieEntry}
- * with the DAO {@link MovieDao}
+ * with the DAO {@link MovieDao}, and tables for the browse catalog {@link BrowsePageEntry} and
+ * {@link BrowseMovieEntry} with the DAO {@link BrowseDao}, the full-text index of the favorites
+ * {@link FavoriteSearchIndex}, and tables for the cached movie details {@link MovieDetailEntry}
+ * with the DAO {@link DetailDao}. The position each browse grid resumes from is stored as a
+ * {@link BrowseAnchorEntry}.
  */
 
-@Database(entities = {MovieEntry.class}, version = 1, exportSchema = false)
+@Database(entities = {MovieEntry.class, BrowsePageEntry.class, BrowseMovieEntry.class,
+        MovieDetailEntry.class, DetailGenreEntry.class, DetailCastEntry.class,
+        DetailCrewEntry.class, DetailVideoEntry.class, DetailReviewEntry.class,
+        BrowseAnchorEntry.class},
+        version = 6, exportSchema = false)
 @TypeConverters(DateConverter.class)
 public abstract class MovieDatabase extends RoomDatabase {
 
@@ -23,12 +33,103 @@ public abstract class MovieDatabase extends RoomDatabase {
     private static final Object LOCK = new Object();
     private static MovieDatabase sInstance;
 
+    /** Version 2 adds the browse catalog tables */
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `browse_page` ("
+                    + "`sort_criteria` TEXT NOT NULL, `page` INTEGER NOT NULL, "
+                    + "`total_pages` INTEGER NOT NULL, `total_results` INTEGER NOT NULL, "
+                    + "`fetched_at` INTEGER, PRIMARY KEY(`sort_criteria`, `page`))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `browse_movie` ("
+                    + "`sort_criteria` TEXT NOT NULL, `page` INTEGER NOT NULL, "
+                    + "`position` INTEGER NOT NULL, `movie_id` INTEGER NOT NULL, "
+                    + "`original_title` TEXT, `title` TEXT, `poster_path` TEXT, `overview` TEXT, "
+                    + "`vote_average` REAL NOT NULL, `release_date` TEXT, `backdrop_path` TEXT, "
+                    + "PRIMARY KEY(`sort_criteria`, `page`, `position`))");
+        }
+    };
+
+    /** Version 3 adds the full-text index of the favorites */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            FavoriteSearchIndex.create(database);
+        }
+    };
+
+    /**
+     * Version 4 adds a unique index on movie.movie_id. Duplicate favorites are removed first,
+     * keeping the most recently added row of each movie.
+     */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("DELETE FROM `movie` WHERE `id` NOT IN "
+                    + "(SELECT MAX(`id`) FROM `movie` GROUP BY `movie_id`)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_movie_movie_id` "
+                    + "ON `movie` (`movie_id`)");
+        }
+    };
+
+    /** Version 5 adds the movie detail cache tables */
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `movie_detail` ("
+                    + "`movie_id` INTEGER NOT NULL, `budget` INTEGER NOT NULL, "
+                    + "`runtime` INTEGER NOT NULL, `revenue` INTEGER NOT NULL, `status` TEXT, "
+                    + "`vote_count` INTEGER NOT NULL, `fetched_at` INTEGER, "
+                    + "PRIMARY KEY(`movie_id`))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `detail_genre` ("
+                    + "`movie_id` INTEGER NOT NULL, `position` INTEGER NOT NULL, "
+                    + "`genre_id` INTEGER NOT NULL, `name` TEXT, "
+                    + "PRIMARY KEY(`movie_id`, `position`))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `detail_cast` ("
+                    + "`movie_id` INTEGER NOT NULL, `position` INTEGER NOT NULL, "
+                    + "`cast_id` INTEGER NOT NULL, `character` TEXT, "
+                    + "`person_id` INTEGER NOT NULL, `name` TEXT, `profile_path` TEXT, "
+                    + "PRIMARY KEY(`movie_id`, `position`))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `detail_crew` ("
+                    + "`movie_id` INTEGER NOT NULL, `position` INTEGER NOT NULL, "
+                    + "`job` TEXT, `name` TEXT, PRIMARY KEY(`movie_id`, `position`))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `detail_video` ("
+                    + "`movie_id` INTEGER NOT NULL, `position` INTEGER NOT NULL, "
+                    + "`video_id` TEXT, `key` TEXT, `name` TEXT, `site` TEXT, "
+                    + "`size` INTEGER NOT NULL, `type` TEXT, "
+                    + "PRIMARY KEY(`movie_id`, `position`))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS `detail_review` ("
+                    + "`movie_id` INTEGER NOT NULL, `position` INTEGER NOT NULL, "
+                    + "`review_id` TEXT, `author` TEXT, `content` TEXT, `url` TEXT, "
+                    + "PRIMARY KEY(`movie_id`, `position`))");
+        }
+    };
+
+    /** Version 6 adds the anchors the browse grids resume from */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `browse_anchor` ("
+                    + "`sort_criteria` TEXT NOT NULL, `page` INTEGER NOT NULL, "
+                    + "`movie_id` INTEGER NOT NULL, `saved_at` INTEGER, "
+                    + "PRIMARY KEY(`sort_criteria`))");
+        }
+    };
+
     public static MovieDatabase getInstance(Context context) {
         if (sInstance == null) {
             synchronized (LOCK) {
                 Log.d(TAG, "Creating new database instance");
                 sInstance = Room.databaseBuilder(context.getApplicationContext(),
                         MovieDatabase.class, DATABASE_NAME)
+                        .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4,
+                                MIGRATION_4_5, MIGRATION_5_6)
+                        .addCallback(new Callback() {
+                            @Override
+                            public void onCreate(SupportSQLiteDatabase db) {
+                                FavoriteSearchIndex.create(db);
+                            }
+                        })
                         .build();
             }
         }
@@ -38,4 +139,8 @@ public abstract class MovieDatabase extends RoomDatabase {
 
     // The associated DAOs for the database
     public abstract MovieDao movieDao();
+
+    public abstract BrowseDao browseDao();
+
+    public abstract DetailDao detailDao();
 }
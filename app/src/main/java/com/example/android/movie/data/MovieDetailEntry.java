@@ -0,0 +1,107 @@
+package com.example.android.movie.data;
+
+import android.arch.persistence.room.ColumnInfo;
+import android.arch.persistence.room.Entity;
+import android.arch.persistence.room.Ignore;
+import android.arch.persistence.room.PrimaryKey;
+
+import com.example.android.movie.model.MovieDetails;
+
+import java.util.Date;
+
+/**
+ * The details of a movie downloaded from movie/{movie_id} and cached in the database. The genres,
+ * cast, crew, videos and reviews appended to the response are stored in their own tables, keyed by
+ * the same movie ID.
+ */
+@Entity(tableName = "movie_detail")
+public class MovieDetailEntry {
+
+    @PrimaryKey
+    @ColumnInfo(name = "movie_id")
+    private int movieId;
+
+    private long budget;
+
+    private int runtime;
+
+    private long revenue;
+
+    private String status;
+
+    @ColumnInfo(name = "vote_count")
+    private int voteCount;
+
+    /** Date the details were downloaded from TMDb */
+    @ColumnInfo(name = "fetched_at")
+    private Date fetchedAt;
+
+    /**
+     * Constructor
+     *
+     * @param movieId The movie ID
+     * @param movieDetails The details from the TMDb response
+     * @param fetchedAt Date the details were downloaded
+     */
+    @Ignore
+    public MovieDetailEntry(int movieId, MovieDetails movieDetails, Date fetchedAt) {
+        this(movieId, movieDetails.getBudget(), movieDetails.getRuntime(),
+                movieDetails.getRevenue(), movieDetails.getStatus(), movieDetails.getVoteCount(),
+                fetchedAt);
+    }
+
+    /**
+     * Constructor used by Room to create MovieDetailEntries
+     */
+    public MovieDetailEntry(int movieId, long budget, int runtime, long revenue, String status,
+                            int voteCount, Date fetchedAt) {
+        this.movieId = movieId;
+        this.budget = budget;
+        this.runtime = runtime;
+        this.revenue = revenue;
+        this.status = status;
+        this.voteCount = voteCount;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public int getMovieId() {
+        return movieId;
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    public int getRuntime() {
+        return runtime;
+    }
+
+    public long getRevenue() {
+        return revenue;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getVoteCount() {
+        return voteCount;
+    }
+
+    public Date getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * Returns the MovieDetails without the genres, credits, videos and reviews
+     */
+    MovieDetails toMovieDetails() {
+        MovieDetails movieDetails = new MovieDetails();
+        movieDetails.setBudget(budget);
+        movieDetails.setRuntime(runtime);
+        movieDetails.setRevenue(revenue);
+        movieDetails.setStatus(status);
+        movieDetails.setVoteCount(voteCount);
+        return movieDetails;
+    }
+}
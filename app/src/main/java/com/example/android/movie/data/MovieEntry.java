@@ -3,11 +3,12 @@ package com.example.android.movie.data;
 import android.arch.persistence.room.ColumnInfo;
 import android.arch.persistence.room.Entity;
 import android.arch.persistence.room.Ignore;
+import android.arch.persistence.room.Index;
 import android.arch.persistence.room.PrimaryKey;
 
 import java.util.Date;
 
-@Entity(tableName = "movie")
+@Entity(tableName = "movie", indices = {@Index(value = "movie_id", unique = true)})
 public class MovieEntry {
 
     @PrimaryKey(autoGenerate = true)
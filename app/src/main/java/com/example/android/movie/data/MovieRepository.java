@@ -1,24 +1,39 @@
 package com.example.android.movie.data;
 
+import android.arch.core.util.Function;
 import android.arch.lifecycle.LiveData;
-import android.arch.lifecycle.MutableLiveData;
+import android.arch.lifecycle.MediatorLiveData;
+import android.arch.lifecycle.Observer;
+import android.arch.paging.LivePagedListBuilder;
+import android.arch.paging.PagedList;
+import android.support.annotation.MainThread;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
 import android.util.Log;
 
 import com.example.android.movie.AppExecutors;
+import com.example.android.movie.CacheRegistry;
+import com.example.android.movie.model.Movie;
 import com.example.android.movie.model.MovieDetails;
-import com.example.android.movie.model.ReviewResponse;
-import com.example.android.movie.model.VideoResponse;
+import com.example.android.movie.utils.PosterPrefetcher;
 
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.concurrent.Executor;
 
 import static com.example.android.movie.utils.Constant.API_KEY;
-import static com.example.android.movie.utils.Constant.CREDITS;
+import static com.example.android.movie.utils.Constant.APPEND_TO_RESPONSE;
+import static com.example.android.movie.utils.Constant.DETAIL_CACHE_MAX_AGE_MILLIS;
+import static com.example.android.movie.utils.Constant.DETAIL_CACHE_MAX_MOVIES;
+import static com.example.android.movie.utils.Constant.DETAIL_PREFETCH_MAX_CONCURRENT;
+import static com.example.android.movie.utils.Constant.DETAIL_REFRESH_INTERVAL_MILLIS;
+import static com.example.android.movie.utils.Constant.ENDPOINT_DETAILS;
 import static com.example.android.movie.utils.Constant.LANGUAGE;
-import static com.example.android.movie.utils.Constant.PAGE;
+import static com.example.android.movie.utils.Constant.PAGE_ONE;
+import static com.example.android.movie.utils.Constant.RESUME_MAX_FETCH_PAGES;
+import static com.example.android.movie.utils.Constant.TMDB_MAX_PAGE;
 
 /**
  * MovieRepository is responsible for handling data operations in Movie. Acts as a mediator
@@ -31,124 +46,389 @@ public class MovieRepository {
     private static final Object LOCK = new Object();
     private static MovieRepository sInstance;
     private final MovieDao mMovieDao;
+    private final BrowseDao mBrowseDao;
+    private final DetailDao mDetailDao;
     private final TheMovieApi mTheMovieApi;
+    private final PosterPrefetcher mPosterPrefetcher;
     private final AppExecutors mExecutors;
+    private final InFlightRequests mInFlightRequests;
+    private final SearchResultCache mSearchResultCache;
+
+    /** Movie IDs waiting to be prefetched, in the order they were requested. Main thread only. */
+    private final LinkedHashSet<Integer> mPrefetchQueue = new LinkedHashSet<>();
+    private int mActivePrefetchCount;
 
     private MovieRepository(MovieDao movieDao,
+                            BrowseDao browseDao,
+                            DetailDao detailDao,
                             TheMovieApi theMovieApi,
+                            PosterPrefetcher posterPrefetcher,
                             AppExecutors executors) {
         mMovieDao = movieDao;
+        mBrowseDao = browseDao;
+        mDetailDao = detailDao;
         mTheMovieApi = theMovieApi;
+        mPosterPrefetcher = posterPrefetcher;
         mExecutors = executors;
+        mInFlightRequests = new InFlightRequests();
+        mSearchResultCache = new SearchResultCache();
+        CacheRegistry.getInstance().register(mSearchResultCache, CacheRegistry.PRIORITY_LOW);
     }
 
     public synchronized static MovieRepository getInstance(
-            MovieDao movieDao, TheMovieApi theMovieApi, AppExecutors executors) {
+            MovieDao movieDao, BrowseDao browseDao, DetailDao detailDao, TheMovieApi theMovieApi,
+            PosterPrefetcher posterPrefetcher, AppExecutors executors) {
         Log.d(TAG, "Getting the repository");
         if (sInstance == null) {
             synchronized (LOCK) {
                 Log.d(TAG, "Making new repository");
-                sInstance = new MovieRepository(movieDao, theMovieApi, executors);
+                sInstance = new MovieRepository(
+                        movieDao, browseDao, detailDao, theMovieApi, posterPrefetcher, executors);
             }
         }
         return sInstance;
     }
 
     /**
-     * Make a network request by calling enqueue and provide a LiveData object of MovieDetails for ViewModel
+     * Returns a LiveData of PagedList of movies for the sort criteria, read from the stored browse
+     * catalog. When the grid scrolls past the last stored movie, the next page is fetched from the
+     * network and written to the database.
+     * <p>
+     * When resuming, the list starts at the movie saved with {@link #saveBrowseAnchor(String,
+     * int)}, and the stored catalog isn't refreshed so the movie is still where it was. If the
+     * movie is past the stored pages, the missing pages up to the one after it are downloaded in
+     * parallel before the list is built.
      *
-     * @param movieId The ID of the movie
+     * @param boundaryCallback The callback fetching the pages of the sort criteria, from
+     *                         {@link #createBrowseBoundaryCallback(String)}
+     * @param config The PagedList configuration
+     * @param fetchExecutor The executor the database pages are loaded on
+     * @param resume True to start the list at the movie the grid was showing last time
      */
-    public LiveData<MovieDetails> getMovieDetails(int movieId) {
-        final MutableLiveData<MovieDetails> movieDetailsData = new MutableLiveData<>();
-
-        mTheMovieApi.getDetails(movieId, API_KEY, LANGUAGE, CREDITS)
-                .enqueue(new Callback<MovieDetails>() {
-                    @Override
-                    public void onResponse(Call<MovieDetails> call, Response<MovieDetails> response) {
-                        if (response.isSuccessful()) {
-                            MovieDetails movieDetails = response.body();
-                            movieDetailsData.setValue(movieDetails);
-                        }
-                    }
+    public LiveData<PagedList<Movie>> getBrowseMoviePagedList(
+            final MovieBoundaryCallback boundaryCallback, final PagedList.Config config,
+            final Executor fetchExecutor, boolean resume) {
+        final String sortCriteria = boundaryCallback.getSortCriteria();
+        if (!resume) {
+            boundaryCallback.refreshIfStale();
+            return buildBrowseMoviePagedList(sortCriteria, config, fetchExecutor,
+                    boundaryCallback, null);
+        }
 
+        final MediatorLiveData<PagedList<Movie>> result = new MediatorLiveData<>();
+        mExecutors.networkIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                final int position = findResumePosition(sortCriteria, boundaryCallback);
+                mExecutors.mainThread().execute(new Runnable() {
                     @Override
-                    public void onFailure(Call<MovieDetails> call, Throwable t) {
-                        movieDetailsData.setValue(null);
-                        Log.e(TAG, "Failed getting MovieDetails: " + t.getMessage());
+                    public void run() {
+                        result.addSource(buildBrowseMoviePagedList(sortCriteria, config,
+                                fetchExecutor, boundaryCallback, position),
+                                new Observer<PagedList<Movie>>() {
+                                    @Override
+                                    public void onChanged(@Nullable PagedList<Movie> pagedList) {
+                                        result.setValue(pagedList);
+                                    }
+                                });
                     }
                 });
-        return movieDetailsData;
+            }
+        });
+        return result;
     }
 
     /**
-     * Make a network request by calling enqueue and provide a LiveData object of ReviewResponse for ViewModel
+     * Returns a new callback fetching the browse pages of the sort criteria from the network,
+     * which exposes the state of the downloads and retries a failed page
      *
-     * @param movieId The ID of the movie
+     * @param sortCriteria The sort order of the movies by popular, top rated and upcoming
      */
-    public LiveData<ReviewResponse> getReviewResponse(int movieId) {
-        final MutableLiveData<ReviewResponse> reviewResponseData = new MutableLiveData<>();
+    public MovieBoundaryCallback createBrowseBoundaryCallback(String sortCriteria) {
+        return new MovieBoundaryCallback(
+                sortCriteria, mTheMovieApi, mBrowseDao, mPosterPrefetcher, mExecutors);
+    }
 
-        mTheMovieApi.getReviews(movieId, API_KEY, LANGUAGE, PAGE)
-                .enqueue(new Callback<ReviewResponse>() {
-                    /**
-                     * Invoked for a received HTTP response.
-                     */
+    private LiveData<PagedList<Movie>> buildBrowseMoviePagedList(
+            String sortCriteria, PagedList.Config config, Executor fetchExecutor,
+            MovieBoundaryCallback boundaryCallback, @Nullable Integer initialPosition) {
+        return new LivePagedListBuilder<>(mBrowseDao.loadMovies(sortCriteria)
+                .map(new Function<BrowseMovieEntry, Movie>() {
                     @Override
-                    public void onResponse(Call<ReviewResponse> call, Response<ReviewResponse> response) {
-                        if (response.isSuccessful()) {
-                            ReviewResponse reviewResponse = response.body();
-                            reviewResponseData.setValue(reviewResponse);
-                        }
+                    public Movie apply(BrowseMovieEntry browseMovieEntry) {
+                        return browseMovieEntry.toMovie();
                     }
+                }), config)
+                .setInitialLoadKey(initialPosition)
+                .setBoundaryCallback(boundaryCallback)
+                .setFetchExecutor(fetchExecutor)
+                .build();
+    }
 
-                    /**
-                     * Invoked when a network exception occurred talking to the server or when an unexpected exception
-                     * occurred creating the request or processing the response.
-                     */
-                    @Override
-                    public void onFailure(Call<ReviewResponse> call, Throwable t) {
-                        reviewResponseData.setValue(null);
-                        Log.e(TAG, "Failed getting ReviewResponse: " + t.getMessage());
-                    }
-                });
-        return reviewResponseData;
+    /**
+     * Returns the position in the stored catalog of the movie the grid was showing last time,
+     * downloading the pages missing up to the one after it, at most RESUME_MAX_FETCH_PAGES of
+     * them. When the movie is no longer stored, the grid resumes at the start of its page.
+     */
+    @WorkerThread
+    private int findResumePosition(String sortCriteria, MovieBoundaryCallback boundaryCallback) {
+        BrowseAnchorEntry anchor = mBrowseDao.loadAnchor(sortCriteria);
+        if (anchor == null) {
+            return 0;
+        }
+        BrowseMovieEntry movie = mBrowseDao.loadMovie(sortCriteria, anchor.getMovieId());
+        if (movie == null) {
+            BrowsePageEntry lastPage = mBrowseDao.loadLastPage(sortCriteria);
+            int fromPage = lastPage == null ? PAGE_ONE : lastPage.getPage() + 1;
+            int lastAvailablePage = lastPage == null
+                    ? TMDB_MAX_PAGE : Math.min(lastPage.getTotalPages(), TMDB_MAX_PAGE);
+            int toPage = Math.min(Math.min(anchor.getPage() + 1, lastAvailablePage),
+                    fromPage + RESUME_MAX_FETCH_PAGES - 1);
+            int storedCount = boundaryCallback.fetchPages(fromPage, toPage);
+            Log.d(TAG, "Resuming " + sortCriteria + " at page " + anchor.getPage() + ", stored "
+                    + storedCount + " missing pages");
+            movie = mBrowseDao.loadMovie(sortCriteria, anchor.getMovieId());
+        }
+        if (movie == null) {
+            return mBrowseDao.countMoviesBefore(sortCriteria, anchor.getPage(), 0);
+        }
+        return mBrowseDao.countMoviesBefore(sortCriteria, movie.getPage(), movie.getPosition());
     }
 
     /**
-     * Make a network request by calling enqueue and provide a LiveData object of VideoResponse for ViewModel
+     * Remember the movie the browse grid of the sort criteria is showing, so the grid can resume
+     * at it after the process is gone
      *
-     * @param movieId The ID of the movie
+     * @param sortCriteria The sort order of the movies by popular, top rated and upcoming
+     * @param movieId The ID of the first visible movie
      */
-    public LiveData<VideoResponse> getVideoResponse(int movieId) {
-        final MutableLiveData<VideoResponse> videoResponseData = new MutableLiveData<>();
+    public void saveBrowseAnchor(final String sortCriteria, final int movieId) {
+        mExecutors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                mBrowseDao.saveAnchor(sortCriteria, movieId);
+            }
+        });
+    }
 
-        mTheMovieApi.getVideos(movieId, API_KEY, LANGUAGE)
-                .enqueue(new Callback<VideoResponse>() {
-                    @Override
-                    public void onResponse(Call<VideoResponse> call, Response<VideoResponse> response) {
-                        if (response.isSuccessful()) {
-                            VideoResponse videoResponse = response.body();
-                            if (videoResponse != null) {
-                                videoResponseData.setValue(videoResponse);
-                            }
+    /**
+     * Returns the Retrofit service used for the paged movie lists
+     */
+    public TheMovieApi getTheMovieApi() {
+        return mTheMovieApi;
+    }
+
+    /**
+     * Returns the prefetcher warming the posters of the pages loaded ahead of the grid
+     */
+    public PosterPrefetcher getPosterPrefetcher() {
+        return mPosterPrefetcher;
+    }
+
+    /**
+     * Returns the in-memory cache of search result pages
+     */
+    public SearchResultCache getSearchResultCache() {
+        return mSearchResultCache;
+    }
+
+    /**
+     * Provide a LiveData object of MovieDetails for ViewModel, served from the detail cache first.
+     * When the movie isn't cached or its details are older than the refresh interval, they are
+     * downloaded in the background, written to the cache and delivered again. A cached movie
+     * opens without a network request and works offline.
+     *
+     * @param movieId The ID of the movie
+     */
+    public LiveData<MovieDetails> getMovieDetails(final int movieId) {
+        final MediatorLiveData<MovieDetails> result = new MediatorLiveData<>();
+        mExecutors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                Date fetchedAt = mDetailDao.loadFetchedAt(movieId);
+                final MovieDetails cached = fetchedAt == null
+                        ? null : mDetailDao.loadMovieDetails(movieId);
+                if (cached != null) {
+                    result.postValue(cached);
+                }
+                if (cached == null || !isFresh(fetchedAt)) {
+                    mExecutors.mainThread().execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            refreshMovieDetails(movieId, result, cached != null);
                         }
+                    });
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Download the details. The credits, videos and reviews are appended to the same response, so
+     * a detail screen needs one round trip.
+     *
+     * @param movieId The ID of the movie
+     * @param result The LiveData the downloaded details are delivered to
+     * @param isCached True when the cached details have already been delivered, so a failed
+     *                 refresh doesn't replace them with null
+     */
+    private void refreshMovieDetails(final int movieId, final MediatorLiveData<MovieDetails> result,
+                                     final boolean isCached) {
+        final LiveData<MovieDetails> network = requestMovieDetails(movieId);
+        result.addSource(network, new Observer<MovieDetails>() {
+            @Override
+            public void onChanged(@Nullable final MovieDetails movieDetails) {
+                result.removeSource(network);
+                if (movieDetails == null) {
+                    if (!isCached) {
+                        result.setValue(null);
                     }
+                    return;
+                }
+                result.setValue(movieDetails);
+                saveMovieDetails(movieId, movieDetails);
+            }
+        });
+    }
+
+    /**
+     * Warm the detail cache for movies the user is likely to open. The queue is replaced by the
+     * given movies, so movies that scrolled away are dropped, and at most
+     * DETAIL_PREFETCH_MAX_CONCURRENT downloads run at a time. Movies whose cached details are
+     * fresh are skipped.
+     *
+     * @param movieIds The IDs of the movies to prefetch, most likely to be opened first
+     */
+    @MainThread
+    public void prefetchMovieDetails(List<Integer> movieIds) {
+        mPrefetchQueue.clear();
+        mPrefetchQueue.addAll(movieIds);
+        startPrefetches();
+    }
 
+    @MainThread
+    private void startPrefetches() {
+        Iterator<Integer> iterator = mPrefetchQueue.iterator();
+        while (mActivePrefetchCount < DETAIL_PREFETCH_MAX_CONCURRENT && iterator.hasNext()) {
+            int movieId = iterator.next();
+            iterator.remove();
+            mActivePrefetchCount++;
+            prefetchMovieDetails(movieId);
+        }
+    }
+
+    private void prefetchMovieDetails(final int movieId) {
+        mExecutors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                final boolean isCached = isFresh(mDetailDao.loadFetchedAt(movieId));
+                mExecutors.mainThread().execute(new Runnable() {
                     @Override
-                    public void onFailure(Call<VideoResponse> call, Throwable t) {
-                        videoResponseData.setValue(null);
-                        Log.e(TAG, "Failed getting VideoResponse: " + t.getMessage());
+                    public void run() {
+                        if (isCached) {
+                            onPrefetchComplete();
+                            return;
+                        }
+                        final LiveData<MovieDetails> network = requestMovieDetails(movieId);
+                        network.observeForever(new Observer<MovieDetails>() {
+                            @Override
+                            public void onChanged(@Nullable MovieDetails movieDetails) {
+                                network.removeObserver(this);
+                                if (movieDetails != null) {
+                                    saveMovieDetails(movieId, movieDetails);
+                                }
+                                onPrefetchComplete();
+                            }
+                        });
                     }
                 });
-        return videoResponseData;
+            }
+        });
+    }
+
+    @MainThread
+    private void onPrefetchComplete() {
+        mActivePrefetchCount--;
+        startPrefetches();
+    }
+
+    /**
+     * Make a network request by calling enqueue. Callers asking for the same movie while a request
+     * is outstanding share its LiveData, so a tap on a movie being prefetched doesn't download it
+     * twice.
+     */
+    private LiveData<MovieDetails> requestMovieDetails(int movieId) {
+        return mInFlightRequests.enqueue(
+                InFlightRequests.key(ENDPOINT_DETAILS, movieId, LANGUAGE),
+                mTheMovieApi.getDetails(movieId, API_KEY, LANGUAGE, APPEND_TO_RESPONSE));
+    }
+
+    private void saveMovieDetails(final int movieId, final MovieDetails movieDetails) {
+        mExecutors.diskIO().execute(new Runnable() {
+            @Override
+            public void run() {
+                Date now = new Date();
+                mDetailDao.saveMovieDetails(movieId, movieDetails, now);
+                // Keep the cache bounded, dwell prefetches add movies all session long
+                int evictedCount = mDetailDao.evict(
+                        new Date(now.getTime() - DETAIL_CACHE_MAX_AGE_MILLIS),
+                        DETAIL_CACHE_MAX_MOVIES);
+                if (evictedCount > 0) {
+                    Log.d(TAG, "Evicted the cached details of " + evictedCount + " movies");
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns true when details fetched at the given date don't need to be downloaded again
+     */
+    private static boolean isFresh(Date fetchedAt) {
+        return fetchedAt != null
+                && System.currentTimeMillis() - fetchedAt.getTime() <= DETAIL_REFRESH_INTERVAL_MILLIS;
+    }
+
+    /**
+     * Returns the number of detail requests that attached to an outstanding call instead of
+     * going to the network
+     */
+    public int getDeduplicatedRequestCount() {
+        return mInFlightRequests.getDeduplicatedCount();
+    }
+
+    /**
+     * Returns the number of detail requests that were sent to the network
+     */
+    public int getNetworkRequestCount() {
+        return mInFlightRequests.getRequestCount();
     }
 
     /**
-     * Return a LiveData of the list of MovieEntries directly from the database
+     * Returns a LiveData of PagedList of the favorites grid, most recently added first. Only the
+     * columns shown in the grid are loaded.
+     *
+     * @param config The PagedList configuration
+     */
+    public LiveData<PagedList<FavoriteGridItem>> getFavoriteGridPagedList(PagedList.Config config) {
+        return new LivePagedListBuilder<>(mMovieDao.loadFavoriteGridItems(), config)
+                .setFetchExecutor(mExecutors.diskIO())
+                .build();
+    }
+
+    /**
+     * Returns a LiveData of PagedList of the favorites matching the search, best matches first.
+     * The full-text query runs on the disk IO thread.
+     *
+     * @param search The text typed in the search field
+     * @param config The PagedList configuration
      */
-    public LiveData<List<MovieEntry>> getFavoriteMovies() {
-        return mMovieDao.loadAllMovies();
+    public LiveData<PagedList<FavoriteGridItem>> searchFavorites(String search,
+                                                               PagedList.Config config) {
+        return new LivePagedListBuilder<>(
+                mMovieDao.searchFavorites(FavoriteSearchIndex.query(search)), config)
+                .setFetchExecutor(mExecutors.diskIO())
+                .build();
     }
 
     /**
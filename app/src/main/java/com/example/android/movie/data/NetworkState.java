@@ -0,0 +1,45 @@
+package com.example.android.movie.data;
+
+/**
+ * The state of the network loads of a paged list: loading, loaded, or failed with an error.
+ */
+public class NetworkState {
+
+    public static final int STATUS_LOADING = 0;
+    public static final int STATUS_LOADED = 1;
+    public static final int STATUS_FAILED = 2;
+
+    public static final NetworkState LOADING = new NetworkState(STATUS_LOADING, null);
+    public static final NetworkState LOADED = new NetworkState(STATUS_LOADED, null);
+
+    private final int mStatus;
+    private final String mMessage;
+
+    private NetworkState(int status, String message) {
+        mStatus = status;
+        mMessage = message;
+    }
+
+    /**
+     * Returns the state of a load that failed and won't be retried on its own
+     *
+     * @param message Describes the error
+     */
+    public static NetworkState failed(String message) {
+        return new NetworkState(STATUS_FAILED, message);
+    }
+
+    /**
+     * Returns {@link #STATUS_LOADING}, {@link #STATUS_LOADED} or {@link #STATUS_FAILED}
+     */
+    public int getStatus() {
+        return mStatus;
+    }
+
+    /**
+     * Returns the error of a failed load, null otherwise
+     */
+    public String getMessage() {
+        return mMessage;
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.android.movie.data;
+
+import android.arch.paging.DataSource;
+import android.arch.paging.PagedList;
+import android.support.annotation.MainThread;
+import android.util.Log;
+
+import com.example.android.movie.TrimmableCache;
+
+import static com.example.android.movie.utils.Constant.PAGED_MOVIE_ESTIMATED_BYTES;
+
+/**
+ * Keeps the number of items loaded in a position-keyed PagedList bounded, however far the grid is
+ * scrolled.
+ * <p>
+ * A PagedList never drops the pages it has loaded. Once the watched list holds more than the
+ * retained window, its DataSource is invalidated. The LivePagedListBuilder then builds a new list
+ * starting from the last position accessed, so only the pages around the viewport are loaded
+ * again, and the pages far from it are left as placeholders that load when the grid scrolls back
+ * to them. The list must have placeholders enabled so its size and the scroll position survive
+ * the reload.
+ * <p>
+ * The window is a {@link TrimmableCache}: when the system is low on memory, the list is reloaded
+ * around its viewport right away, whatever the number of items loaded. It is only touched on the
+ * main thread.
+ */
+public class PagedListWindow implements TrimmableCache {
+
+    /** Tag for logging */
+    private static final String TAG = PagedListWindow.class.getSimpleName();
+
+    private final int mMaxLoadedItems;
+
+    private PagedList<?> mPagedList;
+
+    /** Strong reference to the callback, the PagedList only keeps a weak one */
+    private final PagedList.Callback mCallback = new PagedList.Callback() {
+        @Override
+        public void onChanged(int position, int count) {
+            onLoaded();
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            onLoaded();
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+        }
+    };
+
+    /** The most items loaded at once in a watched list */
+    private int mMaxResidentItems;
+
+    /** The number of times a list was reloaded around its viewport */
+    private int mEvictionCount;
+
+    /**
+     * @param maxLoadedItems The retained window, the number of loaded items above which the list
+     *                       is reloaded around its viewport
+     */
+    public PagedListWindow(int maxLoadedItems) {
+        mMaxLoadedItems = maxLoadedItems;
+    }
+
+    /**
+     * Watch the list, instead of the list watched so far
+     */
+    @MainThread
+    public void watch(PagedList<?> pagedList) {
+        if (mPagedList == pagedList) {
+            return;
+        }
+        if (mPagedList != null) {
+            mPagedList.removeWeakCallback(mCallback);
+        }
+        mPagedList = pagedList;
+        if (pagedList != null) {
+            pagedList.addWeakCallback(null, mCallback);
+            onLoaded();
+        }
+    }
+
+    /**
+     * Returns the approximate number of bytes held by the items loaded in the watched list
+     */
+    @Override
+    public int getSizeBytes() {
+        return mPagedList == null ? 0 : mPagedList.getLoadedCount() * PAGED_MOVIE_ESTIMATED_BYTES;
+    }
+
+    /**
+     * Reload the watched list around its viewport, keeping only the initial load. The pages
+     * can't be dropped down to an exact fraction, so any fraction below 1 reloads the list.
+     */
+    @Override
+    public int trimTo(float fraction) {
+        if (fraction >= 1f || mPagedList == null) {
+            return 0;
+        }
+        int keptCount = mPagedList.getConfig().initialLoadSizeHint;
+        int freedCount = mPagedList.getLoadedCount() - keptCount;
+        DataSource<?, ?> dataSource = mPagedList.getDataSource();
+        if (freedCount <= 0 || dataSource.isInvalid()) {
+            return 0;
+        }
+        mEvictionCount++;
+        dataSource.invalidate();
+        return freedCount * PAGED_MOVIE_ESTIMATED_BYTES;
+    }
+
+    /**
+     * Returns the most items a watched list held at once
+     */
+    public int getMaxResidentItems() {
+        return mMaxResidentItems;
+    }
+
+    /**
+     * Returns the number of times a watched list was reloaded around its viewport
+     */
+    public int getEvictionCount() {
+        return mEvictionCount;
+    }
+
+    /**
+     * Log the most items held at once and the number of reloads
+     */
+    public void logStats() {
+        Log.d(TAG, "Max resident items: " + mMaxResidentItems + " (window " + mMaxLoadedItems
+                + "), reloads: " + mEvictionCount);
+    }
+
+    private void onLoaded() {
+        int loadedCount = mPagedList.getLoadedCount();
+        mMaxResidentItems = Math.max(mMaxResidentItems, loadedCount);
+
+        DataSource<?, ?> dataSource = mPagedList.getDataSource();
+        if (loadedCount > mMaxLoadedItems && !dataSource.isInvalid()) {
+            mEvictionCount++;
+            Log.d(TAG, loadedCount + " items loaded, reloading around position "
+                    + mPagedList.getLastKey());
+            dataSource.invalidate();
+        }
+    }
+}
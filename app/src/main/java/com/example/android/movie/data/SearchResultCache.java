@@ -0,0 +1,199 @@
+package com.example.android.movie.data;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.android.movie.TrimmableCache;
+import com.example.android.movie.model.Movie;
+import com.example.android.movie.model.MovieResponse;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.android.movie.utils.Constant.SEARCH_CACHE_MAX_BYTES;
+import static com.example.android.movie.utils.Constant.SEARCH_CACHE_MAX_ENTRIES;
+import static com.example.android.movie.utils.Constant.SEARCH_CACHE_TTL_MILLIS;
+
+/**
+ * In-memory LRU cache of search/movie result pages, keyed by normalized query and page.
+ * <p>
+ * The cache is bounded both by the number of pages and by their approximate size in bytes, and
+ * entries expire after a short TTL so search results don't go stale. Retyping a recent query
+ * renders its first page without a network request.
+ */
+public class SearchResultCache implements TrimmableCache {
+
+    /** Tag for logging */
+    private static final String TAG = SearchResultCache.class.getSimpleName();
+
+    private static final String KEY_DELIMITER = ":";
+
+    /** Rough per-object overhead used when estimating the size of a page */
+    private static final int OBJECT_OVERHEAD_BYTES = 16;
+    private static final int MOVIE_PRIMITIVES_BYTES = 16;
+
+    /** Pages in access order, least recently used first */
+    private final LinkedHashMap<String, Entry> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int mMaxEntries;
+    private final int mMaxBytes;
+    private final long mTtlMillis;
+
+    private int mSizeBytes;
+    private int mHitCount;
+    private int mMissCount;
+
+    SearchResultCache() {
+        this(SEARCH_CACHE_MAX_ENTRIES, SEARCH_CACHE_MAX_BYTES, SEARCH_CACHE_TTL_MILLIS);
+    }
+
+    SearchResultCache(int maxEntries, int maxBytes, long ttlMillis) {
+        mMaxEntries = maxEntries;
+        mMaxBytes = maxBytes;
+        mTtlMillis = ttlMillis;
+    }
+
+    /**
+     * Returns the cached page for the query, or null when it isn't cached or has expired
+     *
+     * @param query The normalized search query
+     * @param page The page number
+     */
+    synchronized MovieResponse get(String query, int page) {
+        String key = key(query, page);
+        Entry entry = mEntries.get(key);
+        if (entry == null) {
+            mMissCount++;
+            return null;
+        }
+        if (SystemClock.elapsedRealtime() - entry.mStoredAt > mTtlMillis) {
+            remove(key);
+            mMissCount++;
+            return null;
+        }
+        mHitCount++;
+        return entry.mResponse;
+    }
+
+    /**
+     * Store the page for the query, evicting the least recently used pages over the bounds
+     *
+     * @param query The normalized search query
+     * @param page The page number
+     * @param response The page returned by TheMovieApi
+     */
+    synchronized void put(String query, int page, MovieResponse response) {
+        if (response == null) {
+            return;
+        }
+        String key = key(query, page);
+        remove(key);
+
+        Entry entry = new Entry(response, estimateSize(response), SystemClock.elapsedRealtime());
+        if (entry.mSizeBytes > mMaxBytes) {
+            return;
+        }
+        mEntries.put(key, entry);
+        mSizeBytes += entry.mSizeBytes;
+        trimTo(mMaxEntries, mMaxBytes);
+    }
+
+    /**
+     * Evict the least recently used pages down to the fraction of the current size, called by
+     * the {@link com.example.android.movie.CacheRegistry} when the system is low on memory
+     */
+    @Override
+    public synchronized int trimTo(float fraction) {
+        int sizeBefore = mSizeBytes;
+        if (fraction <= 0f) {
+            evictAll();
+        } else {
+            trimTo((int) (mEntries.size() * fraction), (int) (mSizeBytes * fraction));
+        }
+        return sizeBefore - mSizeBytes;
+    }
+
+    /**
+     * Remove all the cached pages
+     */
+    public synchronized void evictAll() {
+        mEntries.clear();
+        mSizeBytes = 0;
+    }
+
+    @Override
+    public synchronized int getSizeBytes() {
+        return mSizeBytes;
+    }
+
+    public synchronized int getHitCount() {
+        return mHitCount;
+    }
+
+    public synchronized int getMissCount() {
+        return mMissCount;
+    }
+
+    private void trimTo(int maxEntries, int maxBytes) {
+        Iterator<Map.Entry<String, Entry>> iterator = mEntries.entrySet().iterator();
+        while (iterator.hasNext() && (mEntries.size() > maxEntries || mSizeBytes > maxBytes)) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            mSizeBytes -= eldest.getValue().mSizeBytes;
+            iterator.remove();
+            Log.d(TAG, "Evicted search page " + eldest.getKey());
+        }
+    }
+
+    private void remove(String key) {
+        Entry removed = mEntries.remove(key);
+        if (removed != null) {
+            mSizeBytes -= removed.mSizeBytes;
+        }
+    }
+
+    private static String key(String query, int page) {
+        return query + KEY_DELIMITER + page;
+    }
+
+    /**
+     * Approximate the heap used by the page from the lengths of its strings
+     */
+    private static int estimateSize(MovieResponse response) {
+        int size = OBJECT_OVERHEAD_BYTES;
+        List<Movie> movies = response.getMovieResults();
+        if (movies == null) {
+            return size;
+        }
+        for (Movie movie : movies) {
+            size += OBJECT_OVERHEAD_BYTES + MOVIE_PRIMITIVES_BYTES
+                    + sizeOf(movie.getOriginalTitle())
+                    + sizeOf(movie.getTitle())
+                    + sizeOf(movie.getPosterPath())
+                    + sizeOf(movie.getOverview())
+                    + sizeOf(movie.getReleaseDate())
+                    + sizeOf(movie.getBackdropPath());
+        }
+        return size;
+    }
+
+    private static int sizeOf(String value) {
+        return value == null ? 0 : OBJECT_OVERHEAD_BYTES + 2 * value.length();
+    }
+
+    /**
+     * A cached page with its estimated size and the time it was stored
+     */
+    private static final class Entry {
+        private final MovieResponse mResponse;
+        private final int mSizeBytes;
+        private final long mStoredAt;
+
+        Entry(MovieResponse response, int sizeBytes, long storedAt) {
+            mResponse = response;
+            mSizeBytes = sizeBytes;
+            mStoredAt = storedAt;
+        }
+    }
+}
@@ -2,8 +2,6 @@ package com.example.android.movie.data;
 
 import com.example.android.movie.model.MovieDetails;
 import com.example.android.movie.model.MovieResponse;
-import com.example.android.movie.model.ReviewResponse;
-import com.example.android.movie.model.VideoResponse;
 
 import retrofit2.Call;
 import retrofit2.http.GET;
@@ -36,22 +34,7 @@ public interface TheMovieApi {
             @Path("id") int id,
             @Query("api_key") String apiKey,
             @Query("language") String language,
-            @Query("append_to_response") String credits
-    );
-
-    @GET("movie/{id}/reviews")
-    Call<ReviewResponse> getReviews(
-            @Path("id") int id,
-            @Query("api_key") String apiKey,
-            @Query("language") String language,
-            @Query("page") int page
-    );
-
-    @GET("movie/{id}/videos")
-    Call<VideoResponse> getVideos(
-            @Path("id") int id,
-            @Query("api_key") String apiKey,
-            @Query("language") String language
+            @Query("append_to_response") String appendToResponse
     );
 
 }
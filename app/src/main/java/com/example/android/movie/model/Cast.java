@@ -26,6 +26,9 @@ public class Cast implements Parcelable {
     @SerializedName("profile_path")
     private String mProfilePath;
 
+    public Cast() {
+    }
+
     private Cast(Parcel in) {
         mCastId = in.readInt();
         mCharacter = in.readString();
@@ -47,6 +50,14 @@ public class Cast implements Parcelable {
         }
     };
 
+    public void setCastId(int castId) {
+        mCastId = castId;
+    }
+
+    public int getCastId() {
+        return mCastId;
+    }
+
     public void setCharacter(String character) {
         mCharacter = character;
     }
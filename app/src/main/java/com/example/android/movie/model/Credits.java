@@ -22,6 +22,9 @@ public class Credits implements Parcelable {
     @SerializedName("crew")
     private List<Crew> mCrew;
 
+    public Credits() {
+    }
+
     private Credits(Parcel in) {
         if (in.readByte() == BYTE) {
             mCast = new ArrayList<>();
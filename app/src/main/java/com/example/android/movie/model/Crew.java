@@ -17,6 +17,9 @@ public class Crew implements Parcelable {
     @SerializedName("name")
     private String mName;
 
+    public Crew() {
+    }
+
     private Crew(Parcel in) {
         mJob = in.readString();
         mName = in.readString();
@@ -0,0 +1,621 @@
+package com.example.android.movie.model;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates streaming {@link TypeAdapter}s for the models of the movie api.
+ * <p>
+ * Without it Gson builds an adapter for each model by reflection the first time the model is
+ * decoded, which delays the first response, and then sets every field through reflection. These
+ * adapters read the JSON names the models declare with {@code SerializedName} straight into the
+ * setters or constructor of the model and skip the other fields of the TMDb responses.
+ * When a field is added to a model, its adapter has to read and write it too.
+ */
+public class ModelTypeAdapterFactory implements TypeAdapterFactory {
+
+    /** The adapter of each model class */
+    private final Map<Class<?>, TypeAdapter<?>> mAdapters = new HashMap<>();
+
+    public ModelTypeAdapterFactory() {
+        MovieAdapter movieAdapter = new MovieAdapter();
+        GenreAdapter genreAdapter = new GenreAdapter();
+        CastAdapter castAdapter = new CastAdapter();
+        CrewAdapter crewAdapter = new CrewAdapter();
+        CreditsAdapter creditsAdapter = new CreditsAdapter(castAdapter, crewAdapter);
+        VideoAdapter videoAdapter = new VideoAdapter();
+        VideoResponseAdapter videoResponseAdapter = new VideoResponseAdapter(videoAdapter);
+        ReviewAdapter reviewAdapter = new ReviewAdapter();
+        ReviewResponseAdapter reviewResponseAdapter = new ReviewResponseAdapter(reviewAdapter);
+
+        mAdapters.put(Movie.class, movieAdapter);
+        mAdapters.put(MovieResponse.class, new MovieResponseAdapter(movieAdapter));
+        mAdapters.put(Genre.class, genreAdapter);
+        mAdapters.put(Cast.class, castAdapter);
+        mAdapters.put(Crew.class, crewAdapter);
+        mAdapters.put(Credits.class, creditsAdapter);
+        mAdapters.put(Video.class, videoAdapter);
+        mAdapters.put(VideoResponse.class, videoResponseAdapter);
+        mAdapters.put(Review.class, reviewAdapter);
+        mAdapters.put(ReviewResponse.class, reviewResponseAdapter);
+        mAdapters.put(MovieDetails.class, new MovieDetailsAdapter(genreAdapter, creditsAdapter,
+                videoResponseAdapter, reviewResponseAdapter));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        return (TypeAdapter<T>) mAdapters.get(type.getRawType());
+    }
+
+    /**
+     * Reads and writes a model as a JSON object. A JSON null is read as null.
+     */
+    private abstract static class ModelAdapter<T> extends TypeAdapter<T> {
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            writeFields(out, value);
+            out.endObject();
+        }
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            in.beginObject();
+            T value = readFields(in);
+            in.endObject();
+            return value;
+        }
+
+        /**
+         * Read every field of the current object, skipping the ones the model doesn't have
+         */
+        abstract T readFields(JsonReader in) throws IOException;
+
+        abstract void writeFields(JsonWriter out, T value) throws IOException;
+    }
+
+    private static final class MovieAdapter extends ModelAdapter<Movie> {
+
+        @Override
+        Movie readFields(JsonReader in) throws IOException {
+            int id = 0;
+            String originalTitle = null;
+            String title = null;
+            String posterPath = null;
+            String overview = null;
+            double voteAverage = 0;
+            String releaseDate = null;
+            String backdropPath = null;
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        id = nextInt(in);
+                        break;
+                    case "original_title":
+                        originalTitle = nextString(in);
+                        break;
+                    case "title":
+                        title = nextString(in);
+                        break;
+                    case "poster_path":
+                        posterPath = nextString(in);
+                        break;
+                    case "overview":
+                        overview = nextString(in);
+                        break;
+                    case "vote_average":
+                        voteAverage = nextDouble(in);
+                        break;
+                    case "release_date":
+                        releaseDate = nextString(in);
+                        break;
+                    case "backdrop_path":
+                        backdropPath = nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            return new Movie(id, originalTitle, title, posterPath, overview, voteAverage,
+                    releaseDate, backdropPath);
+        }
+
+        @Override
+        void writeFields(JsonWriter out, Movie movie) throws IOException {
+            out.name("id").value(movie.getId());
+            out.name("original_title").value(movie.getOriginalTitle());
+            out.name("title").value(movie.getTitle());
+            out.name("poster_path").value(movie.getPosterPath());
+            out.name("overview").value(movie.getOverview());
+            out.name("vote_average").value(movie.getVoteAverage());
+            out.name("release_date").value(movie.getReleaseDate());
+            out.name("backdrop_path").value(movie.getBackdropPath());
+        }
+    }
+
+    private static final class MovieResponseAdapter extends ModelAdapter<MovieResponse> {
+
+        private final MovieAdapter mMovieAdapter;
+
+        MovieResponseAdapter(MovieAdapter movieAdapter) {
+            mMovieAdapter = movieAdapter;
+        }
+
+        @Override
+        MovieResponse readFields(JsonReader in) throws IOException {
+            MovieResponse movieResponse = new MovieResponse();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "page":
+                        movieResponse.setPage(nextInt(in));
+                        break;
+                    case "total_results":
+                        movieResponse.setTotalResults(nextInt(in));
+                        break;
+                    case "total_pages":
+                        movieResponse.setTotalPages(nextInt(in));
+                        break;
+                    case "results":
+                        movieResponse.setMovieResults(readList(in, mMovieAdapter));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            return movieResponse;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, MovieResponse movieResponse) throws IOException {
+            out.name("page").value(movieResponse.getPage());
+            out.name("total_results").value(movieResponse.getTotalResults());
+            out.name("total_pages").value(movieResponse.getTotalPages());
+            out.name("results");
+            writeList(out, movieResponse.getMovieResults(), mMovieAdapter);
+        }
+    }
+
+    private static final class GenreAdapter extends ModelAdapter<Genre> {
+
+        @Override
+        Genre readFields(JsonReader in) throws IOException {
+            Genre genre = new Genre();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        genre.setGenreId(nextInt(in));
+                        break;
+                    case "name":
+                        genre.setGenreName(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            return genre;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, Genre genre) throws IOException {
+            out.name("id").value(genre.getGenreId());
+            out.name("name").value(genre.getGenreName());
+        }
+    }
+
+    private static final class CastAdapter extends ModelAdapter<Cast> {
+
+        @Override
+        Cast readFields(JsonReader in) throws IOException {
+            Cast cast = new Cast();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "cast_id":
+                        cast.setCastId(nextInt(in));
+                        break;
+                    case "character":
+                        cast.setCharacter(nextString(in));
+                        break;
+                    case "id":
+                        cast.setPersonId(nextInt(in));
+                        break;
+                    case "name":
+                        cast.setName(nextString(in));
+                        break;
+                    case "profile_path":
+                        cast.setProfilePath(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            return cast;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, Cast cast) throws IOException {
+            out.name("cast_id").value(cast.getCastId());
+            out.name("character").value(cast.getCharacter());
+            out.name("id").value(cast.getPersonId());
+            out.name("name").value(cast.getName());
+            out.name("profile_path").value(cast.getProfilePath());
+        }
+    }
+
+    private static final class CrewAdapter extends ModelAdapter<Crew> {
+
+        @Override
+        Crew readFields(JsonReader in) throws IOException {
+            Crew crew = new Crew();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "job":
+                        crew.setJob(nextString(in));
+                        break;
+                    case "name":
+                        crew.setName(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            return crew;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, Crew crew) throws IOException {
+            out.name("job").value(crew.getJob());
+            out.name("name").value(crew.getName());
+        }
+    }
+
+    private static final class CreditsAdapter extends ModelAdapter<Credits> {
+
+        private final CastAdapter mCastAdapter;
+        private final CrewAdapter mCrewAdapter;
+
+        CreditsAdapter(CastAdapter castAdapter, CrewAdapter crewAdapter) {
+            mCastAdapter = castAdapter;
+            mCrewAdapter = crewAdapter;
+        }
+
+        @Override
+        Credits readFields(JsonReader in) throws IOException {
+            Credits credits = new Credits();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "cast":
+                        credits.setCast(readList(in, mCastAdapter));
+                        break;
+                    case "crew":
+                        credits.setCrew(readList(in, mCrewAdapter));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            return credits;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, Credits credits) throws IOException {
+            out.name("cast");
+            writeList(out, credits.getCast(), mCastAdapter);
+            out.name("crew");
+            writeList(out, credits.getCrew(), mCrewAdapter);
+        }
+    }
+
+    private static final class VideoAdapter extends ModelAdapter<Video> {
+
+        @Override
+        Video readFields(JsonReader in) throws IOException {
+            Video video = new Video();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        video.setVideoId(nextString(in));
+                        break;
+                    case "key":
+                        video.setKey(nextString(in));
+                        break;
+                    case "name":
+                        video.setName(nextString(in));
+                        break;
+                    case "site":
+                        video.setSite(nextString(in));
+                        break;
+                    case "size":
+                        video.setSize(nextInt(in));
+                        break;
+                    case "type":
+                        video.setType(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            return video;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, Video video) throws IOException {
+            out.name("id").value(video.getVideoId());
+            out.name("key").value(video.getKey());
+            out.name("name").value(video.getName());
+            out.name("site").value(video.getSite());
+            out.name("size").value(video.getSize());
+            out.name("type").value(video.getType());
+        }
+    }
+
+    private static final class VideoResponseAdapter extends ModelAdapter<VideoResponse> {
+
+        private final VideoAdapter mVideoAdapter;
+
+        VideoResponseAdapter(VideoAdapter videoAdapter) {
+            mVideoAdapter = videoAdapter;
+        }
+
+        @Override
+        VideoResponse readFields(JsonReader in) throws IOException {
+            VideoResponse videoResponse = new VideoResponse();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        videoResponse.setId(nextInt(in));
+                        break;
+                    case "results":
+                        videoResponse.setVideoResults(readList(in, mVideoAdapter));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            return videoResponse;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, VideoResponse videoResponse) throws IOException {
+            out.name("id").value(videoResponse.getId());
+            out.name("results");
+            writeList(out, videoResponse.getVideoResults(), mVideoAdapter);
+        }
+    }
+
+    private static final class ReviewAdapter extends ModelAdapter<Review> {
+
+        @Override
+        Review readFields(JsonReader in) throws IOException {
+            Review review = new Review();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "author":
+                        review.setAuthor(nextString(in));
+                        break;
+                    case "content":
+                        review.setContent(nextString(in));
+                        break;
+                    case "id":
+                        review.setId(nextString(in));
+                        break;
+                    case "url":
+                        review.setUrl(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            return review;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, Review review) throws IOException {
+            out.name("author").value(review.getAuthor());
+            out.name("content").value(review.getContent());
+            out.name("id").value(review.getId());
+            out.name("url").value(review.getUrl());
+        }
+    }
+
+    private static final class ReviewResponseAdapter extends ModelAdapter<ReviewResponse> {
+
+        private final ReviewAdapter mReviewAdapter;
+
+        ReviewResponseAdapter(ReviewAdapter reviewAdapter) {
+            mReviewAdapter = reviewAdapter;
+        }
+
+        @Override
+        ReviewResponse readFields(JsonReader in) throws IOException {
+            ReviewResponse reviewResponse = new ReviewResponse();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        reviewResponse.setId(nextInt(in));
+                        break;
+                    case "page":
+                        reviewResponse.setPage(nextInt(in));
+                        break;
+                    case "results":
+                        reviewResponse.setReviewResults(readList(in, mReviewAdapter));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            return reviewResponse;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, ReviewResponse reviewResponse) throws IOException {
+            out.name("id").value(reviewResponse.getId());
+            out.name("page").value(reviewResponse.getPage());
+            out.name("results");
+            writeList(out, reviewResponse.getReviewResults(), mReviewAdapter);
+        }
+    }
+
+    private static final class MovieDetailsAdapter extends ModelAdapter<MovieDetails> {
+
+        private final GenreAdapter mGenreAdapter;
+        private final CreditsAdapter mCreditsAdapter;
+        private final VideoResponseAdapter mVideoResponseAdapter;
+        private final ReviewResponseAdapter mReviewResponseAdapter;
+
+        MovieDetailsAdapter(GenreAdapter genreAdapter, CreditsAdapter creditsAdapter,
+                            VideoResponseAdapter videoResponseAdapter,
+                            ReviewResponseAdapter reviewResponseAdapter) {
+            mGenreAdapter = genreAdapter;
+            mCreditsAdapter = creditsAdapter;
+            mVideoResponseAdapter = videoResponseAdapter;
+            mReviewResponseAdapter = reviewResponseAdapter;
+        }
+
+        @Override
+        MovieDetails readFields(JsonReader in) throws IOException {
+            MovieDetails movieDetails = new MovieDetails();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "budget":
+                        movieDetails.setBudget(nextLong(in));
+                        break;
+                    case "genres":
+                        movieDetails.setGenres(readList(in, mGenreAdapter));
+                        break;
+                    case "runtime":
+                        movieDetails.setRuntime(nextInt(in));
+                        break;
+                    case "revenue":
+                        movieDetails.setRevenue(nextLong(in));
+                        break;
+                    case "status":
+                        movieDetails.setStatus(nextString(in));
+                        break;
+                    case "vote_count":
+                        movieDetails.setVoteCount(nextInt(in));
+                        break;
+                    case "credits":
+                        movieDetails.setCredits(mCreditsAdapter.read(in));
+                        break;
+                    case "videos":
+                        movieDetails.setVideos(mVideoResponseAdapter.read(in));
+                        break;
+                    case "reviews":
+                        movieDetails.setReviews(mReviewResponseAdapter.read(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            return movieDetails;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, MovieDetails movieDetails) throws IOException {
+            out.name("budget").value(movieDetails.getBudget());
+            out.name("genres");
+            writeList(out, movieDetails.getGenres(), mGenreAdapter);
+            out.name("runtime").value(movieDetails.getRuntime());
+            out.name("revenue").value(movieDetails.getRevenue());
+            out.name("status").value(movieDetails.getStatus());
+            out.name("vote_count").value(movieDetails.getVoteCount());
+            out.name("credits");
+            mCreditsAdapter.write(out, movieDetails.getCredits());
+            out.name("videos");
+            mVideoResponseAdapter.write(out, movieDetails.getVideos());
+            out.name("reviews");
+            mReviewResponseAdapter.write(out, movieDetails.getReviews());
+        }
+    }
+
+    /**
+     * Read a JSON array of models, or null
+     */
+    private static <T> List<T> readList(JsonReader in, TypeAdapter<T> adapter)
+            throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<T> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(adapter.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    private static <T> void writeList(JsonWriter out, List<T> list, TypeAdapter<T> adapter)
+            throws IOException {
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (T value : list) {
+            adapter.write(out, value);
+        }
+        out.endArray();
+    }
+
+    /**
+     * Returns the next string, or null for a JSON null such as a missing image path
+     */
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    /**
+     * Returns the next number, or 0 for a JSON null, as Gson leaves the default value of a
+     * primitive field
+     */
+    private static int nextInt(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        return in.nextInt();
+    }
+
+    private static long nextLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0L;
+        }
+        return in.nextLong();
+    }
+
+    private static double nextDouble(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0d;
+        }
+        return in.nextDouble();
+    }
+}
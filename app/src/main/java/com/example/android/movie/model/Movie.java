@@ -135,6 +135,47 @@ public class Movie implements Parcelable {
         return mBackdropPath;
     }
 
+    /**
+     * Two movies are equal when all their fields are, so a list diff only rebinds the movies
+     * that changed
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Movie)) return false;
+        Movie movie = (Movie) o;
+        return mId == movie.mId
+                && Double.compare(mVoteAverage, movie.mVoteAverage) == 0
+                && equal(mOriginalTitle, movie.mOriginalTitle)
+                && equal(mTitle, movie.mTitle)
+                && equal(mPosterPath, movie.mPosterPath)
+                && equal(mOverview, movie.mOverview)
+                && equal(mReleaseDate, movie.mReleaseDate)
+                && equal(mBackdropPath, movie.mBackdropPath);
+    }
+
+    @Override
+    public int hashCode() {
+        long voteAverage = Double.doubleToLongBits(mVoteAverage);
+        int result = mId;
+        result = 31 * result + (int) (voteAverage ^ (voteAverage >>> 32));
+        result = 31 * result + hashCode(mOriginalTitle);
+        result = 31 * result + hashCode(mTitle);
+        result = 31 * result + hashCode(mPosterPath);
+        result = 31 * result + hashCode(mOverview);
+        result = 31 * result + hashCode(mReleaseDate);
+        result = 31 * result + hashCode(mBackdropPath);
+        return result;
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static int hashCode(String value) {
+        return value == null ? 0 : value.hashCode();
+    }
+
     // Parcelling part
     /**
      * Read the value from the parcel
@@ -9,9 +9,10 @@ import java.util.List;
 
 /**
  * A {@link MovieDetails} object includes information related to a movie details, for example,
- * budget, genres, runtime, revenue, status, vote count, credits.
- * This class implements Parcelable interface to allow {@link MovieDetails} object to be sent as a Parcel
- *
+ * budget, genres, runtime, revenue, status, vote count, credits, and the videos and reviews
+ * appended to the same response.
+ * This class implements Parcelable interface to allow {@link MovieDetails} object to be sent as a Parcel.
+ * The videos and reviews aren't parcelled.
  */
 public class MovieDetails implements Parcelable {
 
@@ -36,6 +37,15 @@ public class MovieDetails implements Parcelable {
     @SerializedName("credits")
     private Credits mCredits;
 
+    @SerializedName("videos")
+    private VideoResponse mVideos;
+
+    @SerializedName("reviews")
+    private ReviewResponse mReviews;
+
+    public MovieDetails() {
+    }
+
     private MovieDetails(Parcel in) {
         mBudget = in.readLong();
         mRuntime = in.readInt();
@@ -114,6 +124,22 @@ public class MovieDetails implements Parcelable {
         return mCredits;
     }
 
+    public void setVideos(VideoResponse videos) {
+        mVideos = videos;
+    }
+
+    public VideoResponse getVideos() {
+        return mVideos;
+    }
+
+    public void setReviews(ReviewResponse reviews) {
+        mReviews = reviews;
+    }
+
+    public ReviewResponse getReviews() {
+        return mReviews;
+    }
+
     @Override
     public int describeContents() {
         return 0;
@@ -22,10 +22,37 @@ public class MovieResponse {
     @SerializedName("results")
     private List<Movie> mMovieResults = null;
 
-    @SuppressWarnings({"unused", "used by Retrofit"})
     public MovieResponse() {
     }
 
+    public void setPage(int page) {
+        mPage = page;
+    }
+
+    public int getPage() {
+        return mPage;
+    }
+
+    public void setTotalResults(int totalResults) {
+        mTotalResults = totalResults;
+    }
+
+    public int getTotalResults() {
+        return mTotalResults;
+    }
+
+    public void setTotalPages(int totalPages) {
+        mTotalPages = totalPages;
+    }
+
+    public int getTotalPages() {
+        return mTotalPages;
+    }
+
+    public void setMovieResults(List<Movie> movieResults) {
+        mMovieResults = movieResults;
+    }
+
     public List<Movie> getMovieResults() {
         return mMovieResults;
     }
@@ -1,41 +1,56 @@
 package com.example.android.movie.modules.cast;
 
 import android.databinding.DataBindingUtil;
-import android.graphics.Bitmap;
-import android.graphics.drawable.BitmapDrawable;
 import android.support.annotation.NonNull;
-import android.support.v4.graphics.drawable.RoundedBitmapDrawable;
-import android.support.v4.graphics.drawable.RoundedBitmapDrawableFactory;
+import android.support.v7.recyclerview.extensions.AsyncDifferConfig;
+import android.support.v7.recyclerview.extensions.ListAdapter;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
+import com.example.android.movie.AppExecutors;
 import com.example.android.movie.R;
 import com.example.android.movie.databinding.CastListItemBinding;
 import com.example.android.movie.model.Cast;
-import com.squareup.picasso.Callback;
+import com.example.android.movie.utils.ImageSizeResolver;
 import com.squareup.picasso.Picasso;
 
-import java.util.List;
-
-import static com.example.android.movie.utils.Constant.IMAGE_BASE_URL;
-import static com.example.android.movie.utils.Constant.IMAGE_FILE_SIZE;
+import static com.example.android.movie.utils.ImageSizeResolver.SCREEN_CAST;
 
 /**
  * {@link CastAdapter} exposes a list of casts to a {@link android.support.v7.widget.RecyclerView}
  */
-public class CastAdapter extends RecyclerView.Adapter<CastAdapter.CastViewHolder> {
+public class CastAdapter extends ListAdapter<Cast, CastAdapter.CastViewHolder> {
 
-    /** Member variable for the list of {@link Cast}s */
-    private List<Cast> mCasts;
+    /**
+     * Tell CastAdapter how to compute the differences between two lists of casts
+     */
+    private static final DiffUtil.ItemCallback<Cast> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<Cast>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull Cast oldItem, @NonNull Cast newItem) {
+                    return oldItem.getCastId() == newItem.getCastId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull Cast oldItem, @NonNull Cast newItem) {
+                    return TextUtils.equals(oldItem.getName(), newItem.getName())
+                            && TextUtils.equals(oldItem.getCharacter(), newItem.getCharacter())
+                            && TextUtils.equals(oldItem.getProfilePath(), newItem.getProfilePath());
+                }
+            };
 
     /**
-     * Constructor for CastAdapter that accepts a list of casts to display
-     *
-     * @param casts The list of {@link Cast}s
+     * Constructor for CastAdapter. The casts to display are passed to submitList, which diffs them
+     * with the current casts on a background thread.
      */
-    public CastAdapter(List<Cast> casts) {
-        mCasts = casts;
+    public CastAdapter() {
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                .setBackgroundThreadExecutor(AppExecutors.getInstance().fetch())
+                .build());
+        setHasStableIds(true);
     }
 
     /**
@@ -66,34 +81,18 @@ public class CastAdapter extends RecyclerView.Adapter<CastAdapter.CastViewHolder
      */
     @Override
     public void onBindViewHolder(@NonNull CastViewHolder holder, int position) {
-        Cast cast = mCasts.get(position);
+        Cast cast = getItem(position);
         holder.bind(cast);
     }
 
     /**
-     * This method simply return the number of items to display. It is used behind the scenes
-     * to help layout our Views and for animations.
-     *
-     * @return The number of casts
+     * Returns the cast id, so rows keep their views when the list is updated
      */
     @Override
-    public int getItemCount() {
-        if (null == mCasts) return 0;
-        return mCasts.size();
-    }
-
-    /**
-     * This method is to add a list of {@link Cast}s
-     *
-     * @param casts the data source of the adapter
-     */
-    public void addAll(List<Cast> casts) {
-        mCasts.clear();
-        mCasts.addAll(casts);
-        notifyDataSetChanged();
+    public long getItemId(int position) {
+        return getItem(position).getCastId();
     }
 
-
     /**
      * Cache of the children views for a cast list item.
      */
@@ -118,26 +117,16 @@ public class CastAdapter extends RecyclerView.Adapter<CastAdapter.CastViewHolder
          * @param cast The cast object
          */
          void bind(Cast cast) {
-            String profile = IMAGE_BASE_URL + IMAGE_FILE_SIZE + cast.getProfilePath();
+            String profile = ImageSizeResolver.getInstance(itemView.getContext()).resolve(
+                    SCREEN_CAST, cast.getProfilePath(), mCastItemBinding.ivCast, 1);
+            // The circle is cropped off the main thread and cached by profile path and size
             Picasso.with(itemView.getContext())
                     .load(profile)
-                    .into(mCastItemBinding.ivCast, new Callback() {
-                        @Override
-                        public void onSuccess() {
-                            Bitmap imageBitmap = ((BitmapDrawable) mCastItemBinding.ivCast.getDrawable())
-                                    .getBitmap();
-                            RoundedBitmapDrawable drawable = RoundedBitmapDrawableFactory.create(
-                                    itemView.getContext().getResources(), // to determine density
-                                    imageBitmap); // image to round
-                            drawable.setCircular(true);
-                            mCastItemBinding.ivCast.setImageDrawable(drawable);
-                        }
-
-                        @Override
-                        public void onError() {
-                            mCastItemBinding.ivCast.setImageResource(R.drawable.account_circle);
-                        }
-                    });
+                    .resizeDimen(R.dimen.width_cast_image, R.dimen.width_cast_image)
+                    .centerCrop()
+                    .transform(CircleTransformation.getInstance())
+                    .error(R.drawable.account_circle)
+                    .into(mCastItemBinding.ivCast);
             mCastItemBinding.setCast(cast);
         }
     }
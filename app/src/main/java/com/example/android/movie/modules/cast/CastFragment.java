@@ -22,9 +22,9 @@ import com.example.android.movie.model.Cast;
 import com.example.android.movie.model.Credits;
 import com.example.android.movie.model.Movie;
 import com.example.android.movie.model.MovieDetails;
+import com.example.android.movie.modules.detail.DetailViewModel;
+import com.example.android.movie.modules.detail.DetailViewModelFactory;
 import com.example.android.movie.utils.InjectorUtils;
-import com.example.android.movie.modules.info.InfoViewModel;
-import com.example.android.movie.modules.info.InfoViewModelFactory;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -52,11 +52,11 @@ public class CastFragment extends Fragment {
     private Movie mMovie;
 
     /**
-     *  ViewModel for InformationFragment.
+     *  ViewModel shared with the other fragments of DetailActivity.
      *  MovieDetails data contains the cast data of the movie, and get casts data from the getDetails
-     *  method in the InfoViewModel
+     *  method in the DetailViewModel
      */
-    private InfoViewModel mInfoViewModel;
+    private DetailViewModel mDetailViewModel;
 
     /**
      * Mandatory empty constructor for the fragment manager to instantiate the fragment
@@ -76,7 +76,7 @@ public class CastFragment extends Fragment {
 
         mCastList = new ArrayList<>();
 
-        mCastAdapter = new CastAdapter(mCastList);
+        mCastAdapter = new CastAdapter();
         mCastBinding.rvCast.setAdapter(mCastAdapter);
 
         showOfflineMessage(isOnline());
@@ -93,13 +93,16 @@ public class CastFragment extends Fragment {
     }
 
     private void setupViewModel(Context context, int movieId) {
-        InfoViewModelFactory factory = InjectorUtils.provideInfoViewModelFactory(context, movieId);
-        mInfoViewModel = ViewModelProviders.of(this, factory).get(InfoViewModel.class);
+        DetailViewModelFactory factory = InjectorUtils.provideDetailViewModelFactory(context, movieId);
+        mDetailViewModel = ViewModelProviders.of(getActivity(), factory).get(DetailViewModel.class);
 
-        mInfoViewModel.getMovieDetails().observe(this, new Observer<MovieDetails>() {
+        mDetailViewModel.getMovieDetails().observe(this, new Observer<MovieDetails>() {
             @Override
             public void onChanged(@Nullable MovieDetails movieDetails) {
                 if (movieDetails != null) {
+                    // The details may come from the cache while offline
+                    showOfflineMessage(true);
+
                     // Display cast of the movie
                     loadCast(movieDetails);
                 }
@@ -128,7 +131,7 @@ public class CastFragment extends Fragment {
         Credits credits = movieDetails.getCredits();
         mCastList = credits.getCast();
         credits.setCast(mCastList);
-        mCastAdapter.addAll(mCastList);
+        mCastAdapter.submitList(mCastList);
     }
 
 
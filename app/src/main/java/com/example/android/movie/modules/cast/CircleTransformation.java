@@ -0,0 +1,61 @@
+package com.example.android.movie.modules.cast;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Shader;
+
+import com.squareup.picasso.Transformation;
+
+/**
+ * Crops a cast profile image to a circle.
+ * <p>
+ * Picasso runs the transformation on its worker thread and stores the result in its memory cache
+ * under the image URL, the requested size and {@link #key()}, so a rebound avatar is drawn from
+ * the cached circle without decoding or rounding it again.
+ */
+final class CircleTransformation implements Transformation {
+
+    private static final String KEY = "circle";
+
+    private static final CircleTransformation INSTANCE = new CircleTransformation();
+
+    private CircleTransformation() {
+    }
+
+    static CircleTransformation getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Draw the centered square of the source through a circular mask
+     */
+    @Override
+    public Bitmap transform(Bitmap source) {
+        int size = Math.min(source.getWidth(), source.getHeight());
+        Bitmap.Config config = source.getConfig() != null
+                ? source.getConfig() : Bitmap.Config.ARGB_8888;
+        Bitmap circle = Bitmap.createBitmap(size, size, config);
+
+        BitmapShader shader = new BitmapShader(source, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+        Matrix matrix = new Matrix();
+        matrix.setTranslate(-(source.getWidth() - size) / 2f, -(source.getHeight() - size) / 2f);
+        shader.setLocalMatrix(matrix);
+
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+        paint.setShader(shader);
+
+        float radius = size / 2f;
+        new Canvas(circle).drawCircle(radius, radius, radius, paint);
+
+        source.recycle();
+        return circle;
+    }
+
+    @Override
+    public String key() {
+        return KEY;
+    }
+}
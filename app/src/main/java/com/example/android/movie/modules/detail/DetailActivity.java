@@ -33,6 +33,7 @@ import com.example.android.movie.model.Movie;
 import com.example.android.movie.model.MovieDetails;
 import com.example.android.movie.model.Video;
 import com.example.android.movie.utils.FormatUtils;
+import com.example.android.movie.utils.ImageSizeResolver;
 import com.example.android.movie.utils.InjectorUtils;
 import com.example.android.movie.modules.main.FavViewModel;
 import com.example.android.movie.modules.main.FavViewModelFactory;
@@ -42,10 +43,8 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
-import static com.example.android.movie.utils.Constant.BACKDROP_FILE_SIZE;
 import static com.example.android.movie.utils.Constant.CAST;
 import static com.example.android.movie.utils.Constant.EXTRA_MOVIE;
-import static com.example.android.movie.utils.Constant.IMAGE_BASE_URL;
 import static com.example.android.movie.utils.Constant.RELEASE_YEAR_BEGIN_INDEX;
 import static com.example.android.movie.utils.Constant.RELEASE_YEAR_END_INDEX;
 import static com.example.android.movie.utils.Constant.RESULTS_GENRE;
@@ -54,6 +53,7 @@ import static com.example.android.movie.utils.Constant.RESULTS_RUNTIME;
 import static com.example.android.movie.utils.Constant.SHARE_INTENT_TYPE_TEXT;
 import static com.example.android.movie.utils.Constant.SHARE_URL;
 import static com.example.android.movie.utils.Constant.YOUTUBE_BASE_URL;
+import static com.example.android.movie.utils.ImageSizeResolver.SCREEN_BACKDROP;
 
 /**
  * This activity is responsible for displaying the details for a selected movie.
@@ -152,7 +152,7 @@ public class DetailActivity extends AppCompatActivity implements
             AppExecutors.getInstance().diskIO().execute(new Runnable() {
                 @Override
                 public void run() {
-                    mDb.movieDao().insertMovie(mMovieEntry);
+                    mDb.movieDao().upsertMovie(mMovieEntry);
                 }
             });
 
@@ -305,7 +305,8 @@ public class DetailActivity extends AppCompatActivity implements
      */
     private void loadBackdropImage() {
         String backdropPath = mMovie.getBackdropPath();
-        String backdrop = IMAGE_BASE_URL + BACKDROP_FILE_SIZE + backdropPath;
+        String backdrop = ImageSizeResolver.getInstance(this).resolve(
+                SCREEN_BACKDROP, backdropPath, mDetailBinding.ivBackdrop, 1);
         Picasso.with(this)
                 .load(backdrop)
                 .error(R.drawable.photo)
@@ -0,0 +1,62 @@
+package com.example.android.movie.modules.detail;
+
+import android.arch.core.util.Function;
+import android.arch.lifecycle.LiveData;
+import android.arch.lifecycle.Transformations;
+import android.arch.lifecycle.ViewModel;
+
+import com.example.android.movie.data.MovieRepository;
+import com.example.android.movie.model.MovieDetails;
+import com.example.android.movie.model.ReviewResponse;
+import com.example.android.movie.model.VideoResponse;
+
+/**
+ * {@link ViewModel} for DetailActivity, shared by InformationFragment, CastFragment,
+ * TrailerFragment and ReviewFragment. The details, cast, videos and reviews come from a single
+ * movie/{id} request.
+ */
+public class DetailViewModel extends ViewModel {
+
+    private final LiveData<MovieDetails> mMovieDetails;
+    private final LiveData<VideoResponse> mVideoResponse;
+    private final LiveData<ReviewResponse> mReviewResponse;
+
+    public DetailViewModel(MovieRepository repository, int movieId) {
+        mMovieDetails = repository.getMovieDetails(movieId);
+        mVideoResponse = Transformations.map(mMovieDetails,
+                new Function<MovieDetails, VideoResponse>() {
+                    @Override
+                    public VideoResponse apply(MovieDetails movieDetails) {
+                        return movieDetails == null ? null : movieDetails.getVideos();
+                    }
+                });
+        mReviewResponse = Transformations.map(mMovieDetails,
+                new Function<MovieDetails, ReviewResponse>() {
+                    @Override
+                    public ReviewResponse apply(MovieDetails movieDetails) {
+                        return movieDetails == null ? null : movieDetails.getReviews();
+                    }
+                });
+    }
+
+    /**
+     * Returns LiveData of the details and credits of the movie
+     */
+    public LiveData<MovieDetails> getMovieDetails() {
+        return mMovieDetails;
+    }
+
+    /**
+     * Returns LiveData of the videos of the movie
+     */
+    public LiveData<VideoResponse> getVideoResponse() {
+        return mVideoResponse;
+    }
+
+    /**
+     * Returns LiveData of the first page of reviews of the movie
+     */
+    public LiveData<ReviewResponse> getReviewResponse() {
+        return mReviewResponse;
+    }
+}
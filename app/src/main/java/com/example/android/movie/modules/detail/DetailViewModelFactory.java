@@ -1,4 +1,4 @@
-package com.example.android.movie.modules.review;
+package com.example.android.movie.modules.detail;
 
 import android.arch.lifecycle.ViewModel;
 import android.arch.lifecycle.ViewModelProvider;
@@ -9,12 +9,12 @@ import com.example.android.movie.data.MovieRepository;
  * Factory method that allows us to create a ViewModel with a constructor that takes a
  * {@link MovieRepository} and the movie ID
  */
-public class ReviewViewModelFactory extends ViewModelProvider.NewInstanceFactory  {
+public class DetailViewModelFactory extends ViewModelProvider.NewInstanceFactory {
 
     private final MovieRepository mRepository;
     private final int mMovieId;
 
-    public ReviewViewModelFactory(MovieRepository repository, int movieId) {
+    public DetailViewModelFactory(MovieRepository repository, int movieId) {
         this.mRepository = repository;
         this.mMovieId = movieId;
     }
@@ -22,6 +22,6 @@ public class ReviewViewModelFactory extends ViewModelProvider.NewInstanceFactory
     @Override
     public <T extends ViewModel> T create(Class<T> modelClass) {
         //noinspection unchecked
-        return (T) new ReviewViewModel(mRepository, mMovieId);
+        return (T) new DetailViewModel(mRepository, mMovieId);
     }
 }
@@ -22,6 +22,8 @@ import com.example.android.movie.model.Credits;
 import com.example.android.movie.model.Crew;
 import com.example.android.movie.model.Movie;
 import com.example.android.movie.model.MovieDetails;
+import com.example.android.movie.modules.detail.DetailViewModel;
+import com.example.android.movie.modules.detail.DetailViewModelFactory;
 import com.example.android.movie.utils.FormatUtils;
 import com.example.android.movie.utils.InjectorUtils;
 
@@ -65,8 +67,8 @@ public class InformationFragment extends Fragment {
     /** Member variable for the Movie object */
     private Movie mMovie;
 
-    /** ViewModel for InformationFragment */
-    private InfoViewModel mInfoViewModel;
+    /** ViewModel shared with the other fragments of DetailActivity */
+    private DetailViewModel mDetailViewModel;
 
     /**
      * Mandatory empty constructor for the fragment manager to instantiate the fragment
@@ -88,10 +90,10 @@ public class InformationFragment extends Fragment {
      * Every time the user data is updated, the onChanged callback will be invoked and update the UI
      */
     private void setupViewModel(Context context, int movieId) {
-        InfoViewModelFactory factory = InjectorUtils.provideInfoViewModelFactory(context, movieId);
-        mInfoViewModel = ViewModelProviders.of(this, factory).get(InfoViewModel.class);
+        DetailViewModelFactory factory = InjectorUtils.provideDetailViewModelFactory(context, movieId);
+        mDetailViewModel = ViewModelProviders.of(getActivity(), factory).get(DetailViewModel.class);
 
-        mInfoViewModel.getMovieDetails().observe(this, new Observer<MovieDetails>() {
+        mDetailViewModel.getMovieDetails().observe(this, new Observer<MovieDetails>() {
             @Override
             public void onChanged(@Nullable MovieDetails movieDetails) {
                 if (movieDetails != null) {
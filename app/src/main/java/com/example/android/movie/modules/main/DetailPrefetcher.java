@@ -0,0 +1,131 @@
+package com.example.android.movie.modules.main;
+
+import android.arch.paging.PagedList;
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.os.Handler;
+import android.support.v4.net.ConnectivityManagerCompat;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+
+import com.example.android.movie.data.MovieRepository;
+import com.example.android.movie.model.Movie;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.android.movie.utils.Constant.DETAIL_PREFETCH_DWELL_MILLIS;
+import static com.example.android.movie.utils.Constant.DETAIL_PREFETCH_MAX_MOVIES;
+
+/**
+ * Warms the detail cache for the movies that settle on screen in the browse grid, so a tap on a
+ * poster usually finds the details already stored.
+ * <p>
+ * Nothing is prefetched while the grid is dragged or flung. Once it has rested for
+ * DETAIL_PREFETCH_DWELL_MILLIS, the fully visible movies are handed to
+ * {@link MovieRepository#prefetchMovieDetails(List)}, which bounds the concurrent downloads.
+ * Prefetching is skipped offline and when Data Saver restricts background data on a metered
+ * network.
+ */
+public class DetailPrefetcher extends RecyclerView.OnScrollListener {
+
+    private final Context mContext;
+    private final MovieRepository mRepository;
+    private final MoviePagedListAdapter mAdapter;
+    private final Handler mHandler = new Handler();
+
+    private RecyclerView mRecyclerView;
+
+    private final Runnable mPrefetchVisibleMovies = new Runnable() {
+        @Override
+        public void run() {
+            prefetchVisibleMovies();
+        }
+    };
+
+    DetailPrefetcher(Context context, MovieRepository repository, MoviePagedListAdapter adapter) {
+        mContext = context.getApplicationContext();
+        mRepository = repository;
+        mAdapter = adapter;
+    }
+
+    /**
+     * Start watching the scroll state of the grid
+     */
+    void attach(RecyclerView recyclerView) {
+        mRecyclerView = recyclerView;
+        mRecyclerView.addOnScrollListener(this);
+    }
+
+    /**
+     * Stop watching the grid and cancel a pending prefetch
+     */
+    void detach() {
+        mHandler.removeCallbacks(mPrefetchVisibleMovies);
+        if (mRecyclerView != null) {
+            mRecyclerView.removeOnScrollListener(this);
+            mRecyclerView = null;
+        }
+    }
+
+    /**
+     * Prefetch the visible movies after the dwell time unless the grid starts scrolling again.
+     * Called when a new list is shown without scrolling.
+     */
+    void schedule() {
+        mHandler.removeCallbacks(mPrefetchVisibleMovies);
+        mHandler.postDelayed(mPrefetchVisibleMovies, DETAIL_PREFETCH_DWELL_MILLIS);
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            schedule();
+        } else {
+            mHandler.removeCallbacks(mPrefetchVisibleMovies);
+        }
+    }
+
+    private void prefetchVisibleMovies() {
+        if (mRecyclerView == null || mRecyclerView.getAdapter() != mAdapter || !canPrefetch()) {
+            return;
+        }
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) mRecyclerView.getLayoutManager();
+        int first = layoutManager.findFirstCompletelyVisibleItemPosition();
+        int last = layoutManager.findLastCompletelyVisibleItemPosition();
+        PagedList<Movie> pagedList = mAdapter.getCurrentList();
+        if (first == RecyclerView.NO_POSITION || pagedList == null) {
+            return;
+        }
+
+        List<Integer> movieIds = new ArrayList<>();
+        for (int i = first; i <= last && i < pagedList.size()
+                && movieIds.size() < DETAIL_PREFETCH_MAX_MOVIES; i++) {
+            // Placeholders that haven't loaded yet are null
+            Movie movie = pagedList.get(i);
+            if (movie != null) {
+                movieIds.add(movie.getId());
+            }
+        }
+        if (!movieIds.isEmpty()) {
+            mRepository.prefetchMovieDetails(movieIds);
+        }
+    }
+
+    /**
+     * Returns true when connected and Data Saver doesn't restrict background data
+     */
+    private boolean canPrefetch() {
+        ConnectivityManager connectivityManager = (ConnectivityManager)
+                mContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+        NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
+        if (networkInfo == null || !networkInfo.isConnected()) {
+            return false;
+        }
+        return !ConnectivityManagerCompat.isActiveNetworkMetered(connectivityManager)
+                || ConnectivityManagerCompat.getRestrictBackgroundStatus(connectivityManager)
+                != ConnectivityManagerCompat.RESTRICT_BACKGROUND_STATUS_ENABLED;
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.android.movie.modules.main;
 
+import android.arch.paging.PagedList;
+import android.arch.paging.PagedListAdapter;
 import android.content.Context;
 import android.databinding.DataBindingUtil;
 import android.support.annotation.NonNull;
+import android.support.v7.recyclerview.extensions.AsyncDifferConfig;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
 import android.view.ContextMenu;
 import android.view.LayoutInflater;
@@ -13,26 +17,37 @@ import android.view.ViewGroup;
 import com.example.android.movie.AppExecutors;
 import com.example.android.movie.R;
 import com.example.android.movie.data.MovieDatabase;
-import com.example.android.movie.data.MovieEntry;
+import com.example.android.movie.data.FavoriteGridItem;
 import com.example.android.movie.databinding.FavListItemBinding;
+import com.example.android.movie.utils.ImageSizeResolver;
 import com.squareup.picasso.Picasso;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import static com.example.android.movie.utils.Constant.DELETE;
 import static com.example.android.movie.utils.Constant.DELETE_GROUP_ID;
 import static com.example.android.movie.utils.Constant.DELETE_ORDER;
-import static com.example.android.movie.utils.Constant.IMAGE_BASE_URL;
-import static com.example.android.movie.utils.Constant.IMAGE_FILE_SIZE;
+import static com.example.android.movie.utils.Constant.GRID_SPAN_COUNT;
+import static com.example.android.movie.utils.ImageSizeResolver.SCREEN_FAVORITES;
 
 /**
- * Exposes a list of favorite movies from a list of {@link MovieEntry} to a {@link RecyclerView}
+ * Exposes a PagedList of favorite movies from {@link FavoriteGridItem}s to a {@link RecyclerView}
  */
-public class FavoriteAdapter extends RecyclerView.Adapter<FavoriteAdapter.FavoriteViewHolder> {
+public class FavoriteAdapter extends PagedListAdapter<FavoriteGridItem, FavoriteAdapter.FavoriteViewHolder> {
 
-    /** Member variable for the list of MovieEntries that holds movie data */
-    private List<MovieEntry> mMovieEntries;
+    /** Compares favorites by movie id and displayed fields */
+    private static final DiffUtil.ItemCallback<FavoriteGridItem> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<FavoriteGridItem>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull FavoriteGridItem oldItem,
+                                               @NonNull FavoriteGridItem newItem) {
+                    return oldItem.getMovieId() == newItem.getMovieId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull FavoriteGridItem oldItem,
+                                                  @NonNull FavoriteGridItem newItem) {
+                    return oldItem.equals(newItem);
+                }
+            };
 
     /** Context we use to utility methods, app resources and layout inflaters */
     private Context mContext;
@@ -46,15 +61,19 @@ public class FavoriteAdapter extends RecyclerView.Adapter<FavoriteAdapter.Favori
      * The interface that receives onClick messages.
      */
     public interface FavoriteAdapterOnClickHandler {
-        void onFavItemClick(MovieEntry movieEntry);
+        void onFavItemClick(FavoriteGridItem favorite);
     }
 
     /**
      * Constructor for the FavoriteAdapter
      */
     public FavoriteAdapter(Context context, FavoriteAdapterOnClickHandler onClickHandler) {
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                .setBackgroundThreadExecutor(AppExecutors.getInstance().fetch())
+                .build());
         mContext = context;
         mOnClickHandler = onClickHandler;
+        setHasStableIds(true);
     }
 
     /**
@@ -80,52 +99,23 @@ public class FavoriteAdapter extends RecyclerView.Adapter<FavoriteAdapter.Favori
      */
     @Override
     public void onBindViewHolder(@NonNull FavoriteViewHolder holder, int position) {
-        MovieEntry movieEntry = mMovieEntries.get(position);
-        holder.bind(movieEntry);
+        FavoriteGridItem favorite = getItem(position);
+        if (favorite != null) {
+            holder.bind(favorite);
+        }
     }
 
     /**
-     * Returns the number of items to display.
+     * Returns the movie id, so rows keep their views when the list is updated. The item is read
+     * from the current list rather than getItem, which would trigger loading around it.
      */
     @Override
-    public int getItemCount() {
-        if (mMovieEntries == null) return 0;
-        return mMovieEntries.size();
-    }
-
-    /**
-     * When data changes, updates the list of movieEntries
-     * and notifies the adapter to use the new values on it
-     */
-    public void setMovies(List<MovieEntry> movieEntries) {
-        mMovieEntries = movieEntries;
-        notifyDataSetChanged();
-    }
-
-    /**
-     * Returns the list of MovieEntries
-     */
-    public List<MovieEntry> getMovies() {
-        return mMovieEntries;
+    public long getItemId(int position) {
+        PagedList<FavoriteGridItem> favorites = getCurrentList();
+        FavoriteGridItem favorite = favorites == null ? null : favorites.get(position);
+        return favorite == null ? RecyclerView.NO_ID : favorite.getMovieId();
     }
 
-
-    /**
-     * Set Movies which match search criteria
-     */
-
-    public void filter(String search) {
-        List<MovieEntry> filteredList = new ArrayList<>();
-
-        for (MovieEntry movie: mMovieEntries){
-            if (movie.getTitle().toLowerCase().contains(search.toLowerCase()) || movie.getGenre().toLowerCase().contains(search.toLowerCase()) || movie.getOriginalTitle().toLowerCase().contains(search.toLowerCase())){
-                filteredList.add(movie);
-            }
-        }
-
-        setMovies(filteredList);
-
-    }
     /**
      * Cache of the children views for favorite movie list item.
      */
@@ -147,14 +137,16 @@ public class FavoriteAdapter extends RecyclerView.Adapter<FavoriteAdapter.Favori
             itemView.setOnCreateContextMenuListener(this);
         }
 
-        void bind(MovieEntry movieEntry) {
-            String thumbnail = IMAGE_BASE_URL + IMAGE_FILE_SIZE + movieEntry.getPosterPath();
+        void bind(FavoriteGridItem favorite) {
+            String thumbnail = ImageSizeResolver.getInstance(itemView.getContext()).resolve(
+                    SCREEN_FAVORITES, favorite.getPosterPath(), mFavItemBinding.ivThumbnail,
+                    GRID_SPAN_COUNT);
 
             Picasso.with(itemView.getContext())
                     .load(thumbnail)
                     .into(mFavItemBinding.ivThumbnail);
 
-            mFavItemBinding.tvTitle.setText(movieEntry.getTitle());
+            mFavItemBinding.tvTitle.setText(favorite.getTitle());
         }
 
         /**
@@ -164,8 +156,10 @@ public class FavoriteAdapter extends RecyclerView.Adapter<FavoriteAdapter.Favori
         @Override
         public void onClick(View v) {
             int adapterPosition = getAdapterPosition();
-            MovieEntry movieEntry = mMovieEntries.get(adapterPosition);
-            mOnClickHandler.onFavItemClick(movieEntry);
+            FavoriteGridItem favorite = getItem(adapterPosition);
+            if (favorite != null) {
+                mOnClickHandler.onFavItemClick(favorite);
+            }
         }
 
         /**
@@ -189,8 +183,10 @@ public class FavoriteAdapter extends RecyclerView.Adapter<FavoriteAdapter.Favori
             switch (item.getTitle().toString()) {
                 case DELETE:
                     int adapterPosition = item.getItemId();
-                    MovieEntry movieEntry = mMovieEntries.get(adapterPosition);
-                    delete(movieEntry);
+                    FavoriteGridItem favorite = getItem(adapterPosition);
+                    if (favorite != null) {
+                        delete(favorite.getMovieId());
+                    }
                     return true;
                 default:
                     return false;
@@ -200,12 +196,12 @@ public class FavoriteAdapter extends RecyclerView.Adapter<FavoriteAdapter.Favori
         /**
          * Delete a favorite movie when the user clicks "Delete" menu option.
          */
-        private void delete(final MovieEntry movieEntry) {
+        private void delete(final int movieId) {
             final MovieDatabase db = MovieDatabase.getInstance(mContext);
             AppExecutors.getInstance().diskIO().execute(new Runnable() {
                 @Override
                 public void run() {
-                    db.movieDao().deleteMovie(movieEntry);
+                    db.movieDao().deleteMovieByMovieId(movieId);
                 }
             });
         }
@@ -3,6 +3,7 @@ package com.example.android.movie.modules.main;
 import android.animation.AnimatorSet;
 import android.animation.LayoutTransition;
 import android.animation.ValueAnimator;
+import android.arch.lifecycle.LiveData;
 import android.arch.lifecycle.Observer;
 import android.arch.lifecycle.ViewModelProviders;
 import android.arch.paging.PagedList;
@@ -25,6 +26,7 @@ import android.support.v7.app.AlertDialog;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.preference.PreferenceManager;
 import android.support.v7.widget.GridLayoutManager;
+import android.support.v7.widget.RecyclerView;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.util.Log;
@@ -40,23 +42,27 @@ import android.widget.RadioButton;
 import android.widget.RadioGroup;
 import android.widget.TextView;
 
+import com.example.android.movie.BuildConfig;
 import com.example.android.movie.modules.GridSpacingItemDecoration;
 import com.example.android.movie.R;
 import com.example.android.movie.modules.detail.DetailActivity;
+import com.example.android.movie.data.FavoriteGridItem;
 import com.example.android.movie.data.MovieEntry;
 import com.example.android.movie.data.MoviePreferences;
+import com.example.android.movie.data.NetworkState;
 import com.example.android.movie.databinding.ActivityMainBinding;
 import com.example.android.movie.model.Movie;
+import com.example.android.movie.utils.Event;
+import com.example.android.movie.utils.ImageSizeResolver;
 import com.example.android.movie.utils.InjectorUtils;
 
-import java.util.List;
-
 import static com.example.android.movie.utils.Constant.EXTRA_MOVIE;
 import static com.example.android.movie.utils.Constant.GRID_INCLUDE_EDGE;
 import static com.example.android.movie.utils.Constant.GRID_SPACING;
 import static com.example.android.movie.utils.Constant.GRID_SPAN_COUNT;
 import static com.example.android.movie.utils.Constant.LAYOUT_MANAGER_STATE;
 import static com.example.android.movie.utils.Constant.REQUEST_CODE_DIALOG;
+import static com.example.android.movie.utils.Constant.SEARCH_DEBOUNCE_MILLIS;
 
 /**
  * The MainActivity displays the list of movies that appear as a grid of images
@@ -111,6 +117,11 @@ public class MainActivity extends AppCompatActivity implements
      */
     private Handler mHandler;
 
+    /**
+     * Prefetches the details of the movies that settle on screen in the browse grid
+     */
+    private DetailPrefetcher mDetailPrefetcher;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -128,6 +139,11 @@ public class MainActivity extends AppCompatActivity implements
         }
 
         setupViewModel(mSortCriteria);
+        if (savedInstanceState != null) {
+            mMainViewModel.resumeBrowsePosition();
+        }
+        observeFavoriteSearchResults();
+        observeNetworkState();
         updateUI();
 
         setRadioButton(mSortCriteria);
@@ -176,18 +192,19 @@ public class MainActivity extends AppCompatActivity implements
             public void afterTextChanged(final Editable editable) {
                 mSearch = editable.toString();
                 if (!mSortCriteria.equals(getString(R.string.pref_sort_by_favorites))) {
+                    // Clearing the search shows the stored catalog right away, typing is debounced
+                    long delay = mSearch.trim().isEmpty() ? 0 : SEARCH_DEBOUNCE_MILLIS;
                     mHandler.postDelayed(new Runnable() {
                         @Override
                         public void run() {
                             mMainViewModel.setMoviePagedList(mSortCriteria, mSearch);
-                            updateUI();
                         }
-                    }, 500);
+                    }, delay);
                 } else {
                     if (mSearch.isEmpty()) {
                         updateUI();
                     } else {
-                        mFavoriteAdapter.filter(editable.toString());
+                        mMainViewModel.setFavoriteSearch(mSearch);
                     }
 
                 }
@@ -212,6 +229,10 @@ public class MainActivity extends AppCompatActivity implements
 
         mMoviePagedListAdapter = new MoviePagedListAdapter(this);
         mFavoriteAdapter = new FavoriteAdapter(this, this);
+
+        mDetailPrefetcher = new DetailPrefetcher(
+                this, InjectorUtils.provideRepository(this), mMoviePagedListAdapter);
+        mDetailPrefetcher.attach(mMainBinding.rvMovie);
     }
 
     /**
@@ -229,6 +250,9 @@ public class MainActivity extends AppCompatActivity implements
     private void updateUI() {
         mMainViewModel.setFavoriteMovies();
 
+        // The paged list keeps its observer across searches, so drop it before observing again
+        mMainViewModel.getMoviePagedList().removeObservers(this);
+
         if (mSortCriteria.equals(getString(R.string.pref_sort_by_favorites))) {
             mMainBinding.rvMovie.setAdapter(mFavoriteAdapter);
             observeFavoriteMovies();
@@ -248,7 +272,14 @@ public class MainActivity extends AppCompatActivity implements
                 showMovieDataView();
                 if (pagedList != null) {
                     mMoviePagedListAdapter.submitList(pagedList);
-                    mMainBinding.rvMovie.getLayoutManager().onRestoreInstanceState(mSavedLayoutState);
+                    // Restore the saved position once, the list is rebuilt while scrolling when
+                    // pages are added or dropped and must keep the current position
+                    if (mSavedLayoutState != null) {
+                        mMainBinding.rvMovie.getLayoutManager()
+                                .onRestoreInstanceState(mSavedLayoutState);
+                        mSavedLayoutState = null;
+                    }
+                    mDetailPrefetcher.schedule();
                 }
 
                 if (!isOnline()) {
@@ -260,17 +291,54 @@ public class MainActivity extends AppCompatActivity implements
     }
 
     /**
-     * Update the list of MovieEntries from LiveData in MainActivityViewModel
+     * When a page of the browse grid or the online search fails and won't be retried on its own,
+     * offer to load it again. A failure is only shown once, not again after a rotation.
+     */
+    private void observeNetworkState() {
+        mMainViewModel.getNetworkState().observe(this, new Observer<Event<NetworkState>>() {
+            @Override
+            public void onChanged(@Nullable Event<NetworkState> event) {
+                NetworkState networkState = event == null ? null : event.getContentIfNotHandled();
+                if (networkState != null
+                        && networkState.getStatus() == NetworkState.STATUS_FAILED) {
+                    showSnackbarRetry();
+                }
+            }
+        });
+    }
+
+    /**
+     * Show the favorites matching the search typed while browsing favorites
+     */
+    private void observeFavoriteSearchResults() {
+        mMainViewModel.getFavoriteSearchResults().observe(this, new Observer<PagedList<FavoriteGridItem>>() {
+            @Override
+            public void onChanged(@Nullable PagedList<FavoriteGridItem> favorites) {
+                if (mSortCriteria.equals(getString(R.string.pref_sort_by_favorites))
+                        && mSearch != null && !mSearch.isEmpty()) {
+                    mFavoriteAdapter.submitList(favorites);
+                }
+            }
+        });
+    }
+
+    /**
+     * Update the favorites grid from LiveData in MainActivityViewModel
      */
     private void observeFavoriteMovies() {
-        mMainViewModel.getFavoriteMovies().observe(this, new Observer<List<MovieEntry>>() {
+        mMainViewModel.getFavoriteMovies().removeObservers(this);
+        mMainViewModel.getFavoriteMovies().observe(this, new Observer<PagedList<FavoriteGridItem>>() {
             @Override
-            public void onChanged(@Nullable List<MovieEntry> movieEntries) {
-                mFavoriteAdapter.setMovies(movieEntries);
+            public void onChanged(@Nullable PagedList<FavoriteGridItem> favorites) {
+                // While searching, the search results observe the favorites themselves
+                if (mSearch != null && !mSearch.isEmpty()) {
+                    return;
+                }
+                mFavoriteAdapter.submitList(favorites);
 
                 mMainBinding.rvMovie.getLayoutManager().onRestoreInstanceState(mSavedLayoutState);
 
-                if (movieEntries == null || movieEntries.size() == 0) {
+                if (favorites == null || favorites.size() == 0) {
                     showEmptyView();
                 } else if (!isOnline()) {
                     showMovieDataView();
@@ -288,7 +356,10 @@ public class MainActivity extends AppCompatActivity implements
             mSortCriteria = sharedPreferences.getString(key, getString(R.string.pref_sort_by_default));
         }
 
-        mMainViewModel.setMoviePagedList(mSortCriteria, mSearch);
+        // Favorites aren't paged, switching the paged list would only fetch a catalog nobody shows
+        if (!mSortCriteria.equals(getString(R.string.pref_sort_by_favorites))) {
+            mMainViewModel.setMoviePagedList(mSortCriteria, mSearch);
+        }
         updateUI();
         if (mSortCriteria.equals(getString(R.string.pref_sort_by_favorites))) {
             mMainBinding.search.setHint(getString(R.string.search_offline_placeholder));
@@ -308,6 +379,11 @@ public class MainActivity extends AppCompatActivity implements
         super.onDestroy();
         PreferenceManager.getDefaultSharedPreferences(this)
                 .unregisterOnSharedPreferenceChangeListener(this);
+        mHandler.removeCallbacksAndMessages(null);
+        mDetailPrefetcher.detach();
+        if (BuildConfig.DEBUG) {
+            ImageSizeResolver.getInstance(this).logStats();
+        }
     }
 
     /**
@@ -326,7 +402,23 @@ public class MainActivity extends AppCompatActivity implements
     }
 
     @Override
-    public void onFavItemClick(MovieEntry movieEntry) {
+    public void onFavItemClick(FavoriteGridItem favorite) {
+        final LiveData<MovieEntry> favoriteMovie = mMainViewModel.getFavoriteMovie(favorite.getMovieId());
+        favoriteMovie.observe(this, new Observer<MovieEntry>() {
+            @Override
+            public void onChanged(@Nullable MovieEntry movieEntry) {
+                favoriteMovie.removeObserver(this);
+                if (movieEntry != null) {
+                    openFavorite(movieEntry);
+                }
+            }
+        });
+    }
+
+    /**
+     * Open the DetailActivity for the full MovieEntry of a favorite
+     */
+    private void openFavorite(MovieEntry movieEntry) {
         int movieId = movieEntry.getMovieId();
         String originalTitle = movieEntry.getOriginalTitle();
         String title = movieEntry.getTitle();
@@ -365,7 +457,7 @@ public class MainActivity extends AppCompatActivity implements
                 if (!mSortCriteria.equals(getString(R.string.pref_sort_by_favorites)) || mSearch.isEmpty()) {
                     updateUI();
                 } else {
-                    mFavoriteAdapter.filter(mSearch);
+                    mMainViewModel.setFavoriteSearch(mSearch);
                 }
 
 
@@ -456,6 +548,21 @@ public class MainActivity extends AppCompatActivity implements
         snackbar.show();
     }
 
+    /**
+     * When a page failed to load, show a snackbar message with an action loading it again
+     */
+    private void showSnackbarRetry() {
+        Snackbar.make(mMainBinding.frameMain, R.string.snackbar_load_failed,
+                Snackbar.LENGTH_INDEFINITE)
+                .setAction(R.string.retry, new View.OnClickListener() {
+                    @Override
+                    public void onClick(View v) {
+                        mMainViewModel.retry();
+                    }
+                })
+                .show();
+    }
+
     /**
      * Set column spacing to make each column have the same spacing.
      */
@@ -476,6 +583,28 @@ public class MainActivity extends AppCompatActivity implements
         super.onSaveInstanceState(outState);
         outState.putParcelable(LAYOUT_MANAGER_STATE,
                 mMainBinding.rvMovie.getLayoutManager().onSaveInstanceState());
+        saveBrowseAnchor();
+    }
+
+    /**
+     * Persist the first visible movie of the browse grid. The saved layout state alone can't be
+     * restored after process death, the grid would have to page down to it again from the first
+     * page.
+     */
+    private void saveBrowseAnchor() {
+        if (mSortCriteria.equals(getString(R.string.pref_sort_by_favorites))) {
+            return;
+        }
+        PagedList<Movie> pagedList = mMoviePagedListAdapter.getCurrentList();
+        int position = ((GridLayoutManager) mMainBinding.rvMovie.getLayoutManager())
+                .findFirstVisibleItemPosition();
+        if (pagedList != null && position != RecyclerView.NO_POSITION
+                && position < pagedList.size()) {
+            Movie movie = pagedList.get(position);
+            if (movie != null) {
+                mMainViewModel.saveBrowseAnchor(movie.getId());
+            }
+        }
     }
 
     /**
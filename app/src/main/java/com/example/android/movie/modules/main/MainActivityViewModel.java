@@ -1,21 +1,31 @@
 package com.example.android.movie.modules.main;
 
+import android.arch.core.util.Function;
 import android.arch.lifecycle.LiveData;
+import android.arch.lifecycle.MutableLiveData;
+import android.arch.lifecycle.Transformations;
 import android.arch.lifecycle.ViewModel;
 import android.arch.paging.LivePagedListBuilder;
 import android.arch.paging.PagedList;
 
+import com.example.android.movie.AppExecutors;
+import com.example.android.movie.BuildConfig;
+import com.example.android.movie.CacheRegistry;
+import com.example.android.movie.data.FavoriteGridItem;
+import com.example.android.movie.data.MovieBoundaryCallback;
 import com.example.android.movie.data.MovieDataSourceFactory;
 import com.example.android.movie.data.MovieEntry;
+import com.example.android.movie.data.MovieDataSource;
 import com.example.android.movie.data.MovieRepository;
+import com.example.android.movie.data.NetworkState;
+import com.example.android.movie.data.PagedListWindow;
 import com.example.android.movie.model.Movie;
+import com.example.android.movie.utils.Event;
 
-import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.Locale;
 
+import static com.example.android.movie.utils.Constant.BROWSE_WINDOW_MAX_ITEMS;
 import static com.example.android.movie.utils.Constant.INITIAL_LOAD_SIZE_HINT;
-import static com.example.android.movie.utils.Constant.NUMBER_OF_FIXED_THREADS_FIVE;
 import static com.example.android.movie.utils.Constant.PAGE_SIZE;
 import static com.example.android.movie.utils.Constant.PREFETCH_DISTANCE;
 
@@ -25,36 +35,204 @@ import static com.example.android.movie.utils.Constant.PREFETCH_DISTANCE;
 public class MainActivityViewModel extends ViewModel {
 
     private final MovieRepository mRepository;
+    private final AppExecutors mExecutors;
 
-    private LiveData<PagedList<Movie>> mMoviePagedList;
-    private LiveData<List<MovieEntry>> mFavoriteMovies;
+    /** The current sort criteria and search, the paged list is switched on it */
+    private final MutableLiveData<Query> mQuery = new MutableLiveData<>();
+    private final LiveData<PagedList<Movie>> mMoviePagedList;
+    private LiveData<PagedList<FavoriteGridItem>> mFavoriteMovies;
 
+    /** The search typed while showing favorites, the search results are switched on it */
+    private final MutableLiveData<String> mFavoriteSearch = new MutableLiveData<>();
+    private final LiveData<PagedList<FavoriteGridItem>> mFavoriteSearchResults;
 
-    public MainActivityViewModel(MovieRepository repository, String sortCriteria, String search) {
+    /** The factory of the current network search, cancelled when the query changes */
+    private MovieDataSourceFactory mSearchDataSourceFactory;
+
+    /** Drops the browse pages far from the viewport */
+    private final PagedListWindow mBrowseWindow = new PagedListWindow(BROWSE_WINDOW_MAX_ITEMS);
+
+    /** Fetches the browse pages of the current sort criteria, cancelled when the query changes */
+    private MovieBoundaryCallback mBrowseBoundaryCallback;
+
+    /** The state of the network loads of the current list, browse or search */
+    private final MutableLiveData<LiveData<NetworkState>> mNetworkStateSource =
+            new MutableLiveData<>();
+    private final LiveData<Event<NetworkState>> mNetworkState;
+
+    /** True once the paged list has been initialized */
+    private boolean mIsInitialized;
+
+    /** True when the first browse list should start where the grid was before process death */
+    private boolean mResumeBrowse;
+
+    public MainActivityViewModel(MovieRepository repository, AppExecutors executors,
+                                 String sortCriteria, String search) {
         mRepository = repository;
-        init(sortCriteria,"");
+        mExecutors = executors;
+        CacheRegistry.getInstance().register(mBrowseWindow, CacheRegistry.PRIORITY_LOW);
+        mMoviePagedList = Transformations.switchMap(mQuery,
+                new Function<Query, LiveData<PagedList<Movie>>>() {
+                    @Override
+                    public LiveData<PagedList<Movie>> apply(Query query) {
+                        return init(query.mSortCriteria, query.mSearch, query.mNormalizedSearch);
+                    }
+                });
+        mFavoriteSearchResults = Transformations.switchMap(mFavoriteSearch,
+                new Function<String, LiveData<PagedList<FavoriteGridItem>>>() {
+                    @Override
+                    public LiveData<PagedList<FavoriteGridItem>> apply(String search) {
+                        return mRepository.searchFavorites(search, buildPagedListConfig());
+                    }
+                });
+        mNetworkState = Transformations.map(Transformations.switchMap(mNetworkStateSource,
+                new Function<LiveData<NetworkState>, LiveData<NetworkState>>() {
+                    @Override
+                    public LiveData<NetworkState> apply(LiveData<NetworkState> networkState) {
+                        return networkState;
+                    }
+                }),
+                new Function<NetworkState, Event<NetworkState>>() {
+                    @Override
+                    public Event<NetworkState> apply(NetworkState networkState) {
+                        return new Event<>(networkState);
+                    }
+                });
+        setMoviePagedList(sortCriteria, "");
     }
 
     /**
-     * Initialize the paged list
+     * Initialize the paged list. Browsing by sort criteria reads the catalog stored in the
+     * database, searching pages straight from the network. The search is sent as typed, and its
+     * normalized form keys the cached search pages.
      */
-    private void init(String sortCriteria, String search) {
-        Executor executor = Executors.newFixedThreadPool(NUMBER_OF_FIXED_THREADS_FIVE);
+    private LiveData<PagedList<Movie>> init(String sortCriteria, String search,
+                                            String normalizedSearch) {
+        cancelSearch();
+        cancelBrowse();
+        mRepository.getPosterPrefetcher().cancel();
+        boolean resume = mResumeBrowse;
+        mResumeBrowse = false;
+        mIsInitialized = true;
+
+        if (search.isEmpty()) {
+            mBrowseBoundaryCallback = mRepository.createBrowseBoundaryCallback(sortCriteria);
+            mNetworkStateSource.setValue(mBrowseBoundaryCallback.getNetworkState());
+            LiveData<PagedList<Movie>> browse = mRepository.getBrowseMoviePagedList(
+                    mBrowseBoundaryCallback, buildBrowsePagedListConfig(), mExecutors.fetch(),
+                    resume);
+            return Transformations.map(browse, new Function<PagedList<Movie>, PagedList<Movie>>() {
+                @Override
+                public PagedList<Movie> apply(PagedList<Movie> pagedList) {
+                    mBrowseWindow.watch(pagedList);
+                    return pagedList;
+                }
+            });
+        }
+        mBrowseWindow.watch(null);
 
-        MovieDataSourceFactory movieDataFactory = new MovieDataSourceFactory(sortCriteria,search);
+        mSearchDataSourceFactory = new MovieDataSourceFactory(
+                mRepository.getTheMovieApi(), mRepository.getSearchResultCache(),
+                mRepository.getPosterPrefetcher(), sortCriteria, search, normalizedSearch);
+        mNetworkStateSource.setValue(Transformations.switchMap(
+                mSearchDataSourceFactory.getPostLiveData(),
+                new Function<MovieDataSource, LiveData<NetworkState>>() {
+                    @Override
+                    public LiveData<NetworkState> apply(MovieDataSource source) {
+                        return source.getNetworkState();
+                    }
+                }));
 
-        PagedList.Config config = (new PagedList.Config.Builder())
+        return new LivePagedListBuilder<>(mSearchDataSourceFactory, buildPagedListConfig())
+                .setFetchExecutor(mExecutors.fetch())
+                .build();
+    }
+
+    private static PagedList.Config buildPagedListConfig() {
+        return (new PagedList.Config.Builder())
                 .setEnablePlaceholders(false)
                 .setInitialLoadSizeHint(INITIAL_LOAD_SIZE_HINT)
                 .setPageSize(PAGE_SIZE)
                 .setPrefetchDistance(PREFETCH_DISTANCE)
                 .build();
+    }
 
-        mMoviePagedList = new LivePagedListBuilder<>(movieDataFactory, config)
-                .setFetchExecutor(executor)
+    /**
+     * The browse grid is position-keyed, with placeholders for the stored movies that aren't
+     * loaded, so {@link PagedListWindow} can drop the pages far from the viewport and they load
+     * again from the database on the way back
+     */
+    private static PagedList.Config buildBrowsePagedListConfig() {
+        return (new PagedList.Config.Builder())
+                .setEnablePlaceholders(true)
+                .setInitialLoadSizeHint(INITIAL_LOAD_SIZE_HINT)
+                .setPageSize(PAGE_SIZE)
+                .setPrefetchDistance(PREFETCH_DISTANCE)
                 .build();
     }
 
+    /**
+     * Cancel the outstanding calls of the previous search
+     */
+    private void cancelSearch() {
+        if (mSearchDataSourceFactory != null) {
+            mSearchDataSourceFactory.cancel();
+            mSearchDataSourceFactory = null;
+        }
+    }
+
+    /**
+     * Stop the retries of the browse pages of the previous sort criteria
+     */
+    private void cancelBrowse() {
+        if (mBrowseBoundaryCallback != null) {
+            mBrowseBoundaryCallback.cancel();
+            mBrowseBoundaryCallback = null;
+        }
+    }
+
+    /**
+     * Returns LiveData of the state of the network loads of the current list, browse or search.
+     * Each state is wrapped in an {@link Event}, so a failure is only reported once.
+     */
+    public LiveData<Event<NetworkState>> getNetworkState() {
+        return mNetworkState;
+    }
+
+    /**
+     * Load the page of the current list that failed again, keeping the movies already shown
+     */
+    public void retry() {
+        if (mSearchDataSourceFactory != null) {
+            mSearchDataSourceFactory.retry();
+        } else if (mBrowseBoundaryCallback != null) {
+            mBrowseBoundaryCallback.retry();
+        }
+    }
+
+    /**
+     * Start the browse list at the movie saved with {@link #saveBrowseAnchor(int)}, when the
+     * activity is restored after process death. A list already initialized is kept.
+     */
+    public void resumeBrowsePosition() {
+        if (!mIsInitialized) {
+            mResumeBrowse = true;
+        }
+    }
+
+    /**
+     * Remember the first visible movie of the browse grid, so it can be resumed after process
+     * death. Nothing is saved while searching.
+     *
+     * @param movieId The ID of the first visible movie
+     */
+    public void saveBrowseAnchor(int movieId) {
+        Query query = mQuery.getValue();
+        if (query != null && query.mSearch.isEmpty()) {
+            mRepository.saveBrowseAnchor(query.mSortCriteria, movieId);
+        }
+    }
+
     /**
      * Returns LiveData of PagedList of movie
      */
@@ -63,26 +241,114 @@ public class MainActivityViewModel extends ViewModel {
     }
 
     /**
-     * Set the LiveData of PagedList of movie to clear the old list and reload
+     * Switch the PagedList of movie to the given sort criteria and search. The current list is
+     * kept when the normalized search and the sort criteria haven't changed.
      *
      * @param sortCriteria The sort order of the movies by popular, top rated,
      *                     upcoming, and favorites
+     * @param search The text typed in the search field
      */
     public void setMoviePagedList(String sortCriteria, String search) {
-        init(sortCriteria,search);
+        Query query = new Query(sortCriteria, search == null ? "" : search.trim());
+        if (!query.equals(mQuery.getValue())) {
+            mQuery.setValue(query);
+        }
     }
 
     /**
-     * Returns LiveData of the List of MovieEntries
+     * Trim, collapse the whitespace and lower case the search, so "Star  Wars " and "star wars"
+     * are the same query. Used to compare searches and to key the cached search pages, the API gets
+     * the text as typed. The root
+     * locale keeps the case mapping independent of the device language, e.g. the Turkish dotless
+     * i.
      */
-    public LiveData<List<MovieEntry>> getFavoriteMovies() {
+    static String normalize(String search) {
+        if (search == null) {
+            return "";
+        }
+        return search.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns LiveData of the PagedList of the favorites grid
+     */
+    public LiveData<PagedList<FavoriteGridItem>> getFavoriteMovies() {
         return mFavoriteMovies;
     }
 
     /**
-     *  Set a new value for the list of MovieEntries
+     * Load the favorites grid. Room updates the list when favorites change, so it's only created
+     * once.
      */
     public void setFavoriteMovies() {
-        mFavoriteMovies = mRepository.getFavoriteMovies();
+        if (mFavoriteMovies == null) {
+            mFavoriteMovies = mRepository.getFavoriteGridPagedList(buildPagedListConfig());
+        }
+    }
+
+    /**
+     * Returns LiveData of the full MovieEntry of a favorite, loaded when the favorite is opened
+     *
+     * @param movieId The movie ID
+     */
+    public LiveData<MovieEntry> getFavoriteMovie(int movieId) {
+        return mRepository.getFavoriteMovieByMovieId(movieId);
+    }
+
+    /**
+     * Returns LiveData of the favorites matching the current favorite search, best matches first
+     */
+    public LiveData<PagedList<FavoriteGridItem>> getFavoriteSearchResults() {
+        return mFavoriteSearchResults;
+    }
+
+    /**
+     * Search the favorites. Results of a previous search still running are dropped.
+     *
+     * @param search The text typed in the search field
+     */
+    public void setFavoriteSearch(String search) {
+        mFavoriteSearch.setValue(search);
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        cancelSearch();
+        cancelBrowse();
+        CacheRegistry.getInstance().unregister(mBrowseWindow);
+        mBrowseWindow.watch(null);
+        if (BuildConfig.DEBUG) {
+            mBrowseWindow.logStats();
+        }
+    }
+
+    /**
+     * A sort criteria with a search. Two queries are equal when their normalized searches are.
+     */
+    private static final class Query {
+        private final String mSortCriteria;
+        private final String mSearch;
+        private final String mNormalizedSearch;
+
+        Query(String sortCriteria, String search) {
+            mSortCriteria = sortCriteria;
+            mSearch = search;
+            mNormalizedSearch = normalize(search);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Query)) return false;
+            Query query = (Query) o;
+            return mSortCriteria.equals(query.mSortCriteria)
+                    && mNormalizedSearch.equals(query.mNormalizedSearch);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mSortCriteria.hashCode() + mNormalizedSearch.hashCode();
+        }
     }
 }
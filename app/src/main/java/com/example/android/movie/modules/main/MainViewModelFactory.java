@@ -3,20 +3,24 @@ package com.example.android.movie.modules.main;
 import android.arch.lifecycle.ViewModel;
 import android.arch.lifecycle.ViewModelProvider;
 
+import com.example.android.movie.AppExecutors;
 import com.example.android.movie.data.MovieRepository;
 
 /**
  * Factory method that allows us to create a ViewModel with a constructor that takes a
- * {@link MovieRepository} and String sortCriteria
+ * {@link MovieRepository}, {@link AppExecutors} and String sortCriteria
  */
 public class MainViewModelFactory extends ViewModelProvider.NewInstanceFactory {
 
     private final MovieRepository mRepository;
+    private final AppExecutors mExecutors;
     private final String mSortCriteria;
     private final String mSearch;
 
-    public MainViewModelFactory(MovieRepository repository, String sortCriteria, String search) {
+    public MainViewModelFactory(MovieRepository repository, AppExecutors executors,
+                                String sortCriteria, String search) {
         mRepository = repository;
+        mExecutors = executors;
         mSortCriteria = sortCriteria;
         mSearch = search;
     }
@@ -24,6 +28,6 @@ public class MainViewModelFactory extends ViewModelProvider.NewInstanceFactory {
     @Override
     public <T extends ViewModel> T create(Class<T> modelClass) {
         //noinspection unchecked
-        return (T) new MainActivityViewModel(mRepository, mSortCriteria, mSearch);
+        return (T) new MainActivityViewModel(mRepository, mExecutors, mSortCriteria, mSearch);
     }
 }
@@ -14,13 +14,14 @@ import com.example.android.movie.R;
 import com.example.android.movie.data.MovieEntry;
 import com.example.android.movie.databinding.MovieListItemBinding;
 import com.example.android.movie.model.Movie;
+import com.example.android.movie.utils.ImageSizeResolver;
 import com.squareup.picasso.Picasso;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import static com.example.android.movie.utils.Constant.IMAGE_BASE_URL;
-import static com.example.android.movie.utils.Constant.IMAGE_FILE_SIZE;
+import static com.example.android.movie.utils.Constant.GRID_SPAN_COUNT;
+import static com.example.android.movie.utils.ImageSizeResolver.SCREEN_GRID;
 
 /**
  * {@link MoviePagedListAdapter} is responsible for presenting movie data from PagedList in a RecyclerView.
@@ -122,10 +123,19 @@ public class MoviePagedListAdapter extends PagedListAdapter<Movie, MoviePagedLis
          * This method will take a Movie object as input and use that movie to display the appropriate
          * text and an image within a list item.
          *
-         * @param movie The movie object
+         * @param movie The movie object, null for a placeholder of a movie that hasn't loaded yet
          */
         void bind(Movie movie) {
-            String thumbnail = IMAGE_BASE_URL + IMAGE_FILE_SIZE + movie.getPosterPath();
+            if (movie == null) {
+                Picasso.with(itemView.getContext()).cancelRequest(mMovieItemBinding.ivThumbnail);
+                mMovieItemBinding.ivThumbnail.setImageDrawable(null);
+                mMovieItemBinding.tvTitle.setText(null);
+                return;
+            }
+
+            String thumbnail = ImageSizeResolver.getInstance(itemView.getContext()).resolve(
+                    SCREEN_GRID, movie.getPosterPath(), mMovieItemBinding.ivThumbnail,
+                    GRID_SPAN_COUNT);
 
             Picasso.with(itemView.getContext())
                     .load(thumbnail)
@@ -143,8 +153,13 @@ public class MoviePagedListAdapter extends PagedListAdapter<Movie, MoviePagedLis
         @Override
         public void onClick(View v) {
             int adapterPosition = getAdapterPosition();
+            if (adapterPosition == RecyclerView.NO_POSITION) {
+                return;
+            }
             Movie movie = getItem(adapterPosition);
-            mOnClickHandler.onItemClick(movie);
+            if (movie != null) {
+                mOnClickHandler.onItemClick(movie);
+            }
         }
     }
 }
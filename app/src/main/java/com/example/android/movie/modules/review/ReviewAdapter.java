@@ -2,27 +2,49 @@ package com.example.android.movie.modules.review;
 
 import android.databinding.DataBindingUtil;
 import android.support.annotation.NonNull;
+import android.support.v7.recyclerview.extensions.AsyncDifferConfig;
+import android.support.v7.recyclerview.extensions.ListAdapter;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.example.android.movie.AppExecutors;
 import com.example.android.movie.R;
 import com.example.android.movie.databinding.ReviewListItemBinding;
 import com.example.android.movie.model.Review;
+import com.example.android.movie.utils.StableIdMap;
 
-import java.util.List;
+public class ReviewAdapter extends ListAdapter<Review, ReviewAdapter.ReviewViewHolder> {
 
-public class ReviewAdapter extends RecyclerView.Adapter<ReviewAdapter.ReviewViewHolder> {
-
-    /** Member variable for the list of {@link Review}s */
-    private List<Review> mReviews;
+    /**
+     * Tell ReviewAdapter how to compute the differences between two lists of reviews
+     */
+    private static final DiffUtil.ItemCallback<Review> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<Review>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull Review oldItem, @NonNull Review newItem) {
+                    return TextUtils.equals(oldItem.getId(), newItem.getId());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull Review oldItem, @NonNull Review newItem) {
+                    return TextUtils.equals(oldItem.getAuthor(), newItem.getAuthor())
+                            && TextUtils.equals(oldItem.getContent(), newItem.getContent())
+                            && TextUtils.equals(oldItem.getUrl(), newItem.getUrl());
+                }
+            };
 
     /** An on-click handler that we've defined to make it easy for a Fragment to interface with
      * our RecyclerView
      */
     private final ReviewAdapterOnClickHandler mOnClickHandler;
 
+    /** Unique ids of the review ids */
+    private final StableIdMap mStableIds = new StableIdMap();
+
     /**
      * The interface that receives onClick messages.
      */
@@ -31,15 +53,18 @@ public class ReviewAdapter extends RecyclerView.Adapter<ReviewAdapter.ReviewView
     }
 
     /**
-     * Constructor for ReviewAdapter that accepts a list of reviews to display
+     * Constructor for ReviewAdapter. The reviews to display are passed to submitList, which diffs
+     * them with the current reviews on a background thread.
      *
-     * @param reviews List of {@link Review}s
      * @param onClickHandler The on-click handler for this adapter. This single handler is called
      *                       when an item is clicked.
      */
-    public ReviewAdapter(List<Review> reviews, ReviewAdapterOnClickHandler onClickHandler) {
-        mReviews = reviews;
+    public ReviewAdapter(ReviewAdapterOnClickHandler onClickHandler) {
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                .setBackgroundThreadExecutor(AppExecutors.getInstance().fetch())
+                .build());
         mOnClickHandler = onClickHandler;
+        setHasStableIds(true);
     }
 
     /**
@@ -62,29 +87,17 @@ public class ReviewAdapter extends RecyclerView.Adapter<ReviewAdapter.ReviewView
      */
     @Override
     public void onBindViewHolder(@NonNull ReviewViewHolder holder, int position) {
-        Review review = mReviews.get(position);
+        Review review = getItem(position);
         holder.bind(review);
     }
 
     /**
-     * This method simply return the number of items to display. It is used behind the scenes
-     * to help layout our Views and for animations.
-     *
-     * @return The number of reviews
+     * Returns a unique id for the review id, so rows keep their views when the list is updated
      */
     @Override
-    public int getItemCount() {
-        if (null == mReviews) return 0;
-        return mReviews.size();
-    }
-
-    /**
-     * This method is to add a list of {@link Review}s
-     */
-    public void addAll(List<Review> reviews) {
-        mReviews.clear();
-        mReviews.addAll(reviews);
-        notifyDataSetChanged();
+    public long getItemId(int position) {
+        String id = getItem(position).getId();
+        return id == null ? RecyclerView.NO_ID : mStableIds.getId(id);
     }
 
     /**
@@ -123,7 +136,7 @@ public class ReviewAdapter extends RecyclerView.Adapter<ReviewAdapter.ReviewView
         @Override
         public void onClick(View v) {
             int adapterPosition = getAdapterPosition();
-            Review review = mReviews.get(adapterPosition);
+            Review review = getItem(adapterPosition);
             mOnClickHandler.onItemClick(review.getUrl());
         }
     }
@@ -22,6 +22,8 @@ import com.example.android.movie.databinding.FragmentReviewBinding;
 import com.example.android.movie.model.Movie;
 import com.example.android.movie.model.Review;
 import com.example.android.movie.model.ReviewResponse;
+import com.example.android.movie.modules.detail.DetailViewModel;
+import com.example.android.movie.modules.detail.DetailViewModelFactory;
 import com.example.android.movie.utils.InjectorUtils;
 
 import java.util.ArrayList;
@@ -46,8 +48,8 @@ public class ReviewFragment extends Fragment implements ReviewAdapter.ReviewAdap
     /** Member variable for the Movie object */
     private Movie mMovie;
 
-    /** ViewModel for ReviewFragment */
-    private ReviewViewModel mReviewViewModel;
+    /** ViewModel shared with the other fragments of DetailActivity */
+    private DetailViewModel mDetailViewModel;
 
     /**
      * Mandatory empty constructor for the fragment manager to instantiate the fragment
@@ -74,17 +76,19 @@ public class ReviewFragment extends Fragment implements ReviewAdapter.ReviewAdap
      * Every time the user data is updated, the onChanged callback will be invoked and update the UI
      */
     private void setupViewModel(Context context) {
-        ReviewViewModelFactory factory = InjectorUtils.provideReviewViewModelFactory(context, mMovie.getId());
-        mReviewViewModel = ViewModelProviders.of(this, factory).get(ReviewViewModel.class);
+        DetailViewModelFactory factory = InjectorUtils.provideDetailViewModelFactory(context, mMovie.getId());
+        mDetailViewModel = ViewModelProviders.of(getActivity(), factory).get(DetailViewModel.class);
 
-        mReviewViewModel.getReviewResponse().observe(this, new Observer<ReviewResponse>() {
+        mDetailViewModel.getReviewResponse().observe(this, new Observer<ReviewResponse>() {
             @Override
             public void onChanged(@Nullable ReviewResponse reviewResponse) {
                 if (reviewResponse != null) {
+                    // The details may come from the cache while offline
+                    showOfflineMessage(true);
                     mReviews = reviewResponse.getReviewResults();
                     reviewResponse.setReviewResults(mReviews);
-                    if (!mReviews.isEmpty()) {
-                        mReviewAdapter.addAll(mReviews);
+                    if (mReviews != null && !mReviews.isEmpty()) {
+                        mReviewAdapter.submitList(mReviews);
                     } else {
                         showNoReviewsMessage();
                     }
@@ -105,7 +109,7 @@ public class ReviewFragment extends Fragment implements ReviewAdapter.ReviewAdap
 
         mReviews = new ArrayList<>();
 
-        mReviewAdapter = new ReviewAdapter(mReviews, this);
+        mReviewAdapter = new ReviewAdapter(this);
         mReviewBinding.rvReview.setAdapter(mReviewAdapter);
 
         showOfflineMessage(isOnline());
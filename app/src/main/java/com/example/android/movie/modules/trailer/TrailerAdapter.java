@@ -2,18 +2,22 @@ package com.example.android.movie.modules.trailer;
 
 import android.databinding.DataBindingUtil;
 import android.support.annotation.NonNull;
+import android.support.v7.recyclerview.extensions.AsyncDifferConfig;
+import android.support.v7.recyclerview.extensions.ListAdapter;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.example.android.movie.AppExecutors;
 import com.example.android.movie.R;
 import com.example.android.movie.databinding.TrailerListItemBinding;
 import com.example.android.movie.model.Video;
+import com.example.android.movie.utils.StableIdMap;
 import com.squareup.picasso.Picasso;
 
-import java.util.List;
-
 import static com.example.android.movie.utils.Constant.YOUTUBE_BASE_URL;
 import static com.example.android.movie.utils.Constant.YOUTUBE_THUMBNAIL_BASE_URL;
 import static com.example.android.movie.utils.Constant.YOUTUBE_THUMBNAIL_URL_JPG;
@@ -21,16 +25,33 @@ import static com.example.android.movie.utils.Constant.YOUTUBE_THUMBNAIL_URL_JPG
 /**
  * {@link TrailerAdapter} exposes a list of trailers to a {@link android.support.v7.widget.RecyclerView}
  */
-public class TrailerAdapter extends RecyclerView.Adapter<TrailerAdapter.TrailerViewHolder> {
+public class TrailerAdapter extends ListAdapter<Video, TrailerAdapter.TrailerViewHolder> {
 
-    /** Member variable for the list of {@link Video}s*/
-    private List<Video> mVideos;
+    /**
+     * Tell TrailerAdapter how to compute the differences between two lists of videos
+     */
+    private static final DiffUtil.ItemCallback<Video> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<Video>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull Video oldItem, @NonNull Video newItem) {
+                    return TextUtils.equals(oldItem.getVideoId(), newItem.getVideoId());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull Video oldItem, @NonNull Video newItem) {
+                    return TextUtils.equals(oldItem.getKey(), newItem.getKey())
+                            && TextUtils.equals(oldItem.getName(), newItem.getName());
+                }
+            };
 
     /** An on-click handler that we've defined to make it easy for a Fragment to interface with
      * our RecyclerView
      */
     private final TrailerAdapterOnClickHandler mOnClickHandler;
 
+    /** Unique ids of the video ids */
+    private final StableIdMap mStableIds = new StableIdMap();
+
     /**
      * The interface that receives onClick messages.
      */
@@ -39,15 +60,18 @@ public class TrailerAdapter extends RecyclerView.Adapter<TrailerAdapter.TrailerV
     }
 
     /**
-     * Constructor for TrailerAdapter that accepts a list of trailers to display
+     * Constructor for TrailerAdapter. The trailers to display are passed to submitList, which
+     * diffs them with the current trailers on a background thread.
      *
-     * @param videos List of {@link Video}s
      * @param onClickHandler The on-click handler for this adapter. This single handler is called
      *                       when an item is clicked.
      */
-    public TrailerAdapter(List<Video> videos, TrailerAdapterOnClickHandler onClickHandler) {
-        mVideos = videos;
+    public TrailerAdapter(TrailerAdapterOnClickHandler onClickHandler) {
+        super(new AsyncDifferConfig.Builder<>(DIFF_CALLBACK)
+                .setBackgroundThreadExecutor(AppExecutors.getInstance().fetch())
+                .build());
         mOnClickHandler = onClickHandler;
+        setHasStableIds(true);
     }
 
     /**
@@ -78,31 +102,17 @@ public class TrailerAdapter extends RecyclerView.Adapter<TrailerAdapter.TrailerV
      */
     @Override
     public void onBindViewHolder(@NonNull TrailerViewHolder holder, int position) {
-        Video video = mVideos.get(position);
+        Video video = getItem(position);
         holder.bind(video);
     }
 
     /**
-     * This method simply return the number of items to display. It is used behind the scenes
-     * to help layout our Views and for animations.
-     *
-     * @return The number of trailers
+     * Returns a unique id for the video id, so rows keep their views when the list is updated
      */
     @Override
-    public int getItemCount() {
-        if (null == mVideos) return 0;
-        return mVideos.size();
-    }
-
-    /**
-     * This method is to add a list of {@link Video}s
-     *
-     * @param videos The videos is the data source fo the adapter
-     */
-    public void addAll(List<Video> videos) {
-        mVideos.clear();
-        mVideos.addAll(videos);
-        notifyDataSetChanged();
+    public long getItemId(int position) {
+        String videoId = getItem(position).getVideoId();
+        return videoId == null ? RecyclerView.NO_ID : mStableIds.getId(videoId);
     }
 
     /**
@@ -146,7 +156,7 @@ public class TrailerAdapter extends RecyclerView.Adapter<TrailerAdapter.TrailerV
         @Override
         public void onClick(View v) {
             int adapterPosition = getAdapterPosition();
-            Video video = mVideos.get(adapterPosition);
+            Video video = getItem(adapterPosition);
             String videoKey = video.getKey();
             String videoUrl = YOUTUBE_BASE_URL + videoKey;
             mOnClickHandler.onItemClick(videoUrl);
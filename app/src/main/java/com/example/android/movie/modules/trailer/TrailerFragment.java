@@ -22,6 +22,8 @@ import com.example.android.movie.databinding.FragmentTrailerBinding;
 import com.example.android.movie.model.Movie;
 import com.example.android.movie.model.Video;
 import com.example.android.movie.model.VideoResponse;
+import com.example.android.movie.modules.detail.DetailViewModel;
+import com.example.android.movie.modules.detail.DetailViewModelFactory;
 import com.example.android.movie.utils.InjectorUtils;
 
 import java.util.ArrayList;
@@ -54,8 +56,8 @@ public class TrailerFragment extends Fragment implements TrailerAdapter.TrailerA
     /** This field is used for data binding */
     private FragmentTrailerBinding mTrailerBinding;
 
-    /** ViewModel for TrailerFragment */
-    private TrailerViewModel mTrailerViewModel;
+    /** ViewModel shared with the other fragments of DetailActivity */
+    private DetailViewModel mDetailViewModel;
 
     /**
      * Mandatory empty constructor for the fragment manager to instantiate the fragment
@@ -76,20 +78,22 @@ public class TrailerFragment extends Fragment implements TrailerAdapter.TrailerA
      * Every time the user data is updated, the onChanged callback will be invoked and update the UI
      */
     private void setupViewModel(Context context, int movieId) {
-        TrailerViewModelFactory factory = InjectorUtils.provideTrailerViewModelFactory(context, movieId);
-        mTrailerViewModel = ViewModelProviders.of(this, factory).get(TrailerViewModel.class);
+        DetailViewModelFactory factory = InjectorUtils.provideDetailViewModelFactory(context, movieId);
+        mDetailViewModel = ViewModelProviders.of(getActivity(), factory).get(DetailViewModel.class);
 
-        mTrailerViewModel.getVideoResponse().observe(this, new Observer<VideoResponse>() {
+        mDetailViewModel.getVideoResponse().observe(this, new Observer<VideoResponse>() {
             @Override
             public void onChanged(@Nullable VideoResponse videoResponse) {
                 if (videoResponse != null) {
+                    // The details may come from the cache while offline
+                    showOfflineMessage(true);
                     mVideos = videoResponse.getVideoResults();
                     videoResponse.setVideoResults(mVideos);
 
-                    if (!mVideos.isEmpty()) {
+                    if (mVideos != null && !mVideos.isEmpty()) {
                         mCallback.onTrailerSelected(mVideos.get(0));
 
-                        mTrailerAdapter.addAll(mVideos);
+                        mTrailerAdapter.submitList(mVideos);
                     } else {
                         showNoTrailersMessage();
                     }
@@ -110,7 +114,7 @@ public class TrailerFragment extends Fragment implements TrailerAdapter.TrailerA
 
         mVideos = new ArrayList<>();
 
-        mTrailerAdapter = new TrailerAdapter(mVideos, this);
+        mTrailerAdapter = new TrailerAdapter(this);
         mTrailerBinding.rvTrailer.setAdapter(mTrailerAdapter);
         showOfflineMessage(isOnline());
 
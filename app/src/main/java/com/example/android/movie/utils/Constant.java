@@ -10,16 +10,37 @@ public final class Constant {
     /** The base movie URL from TMDb */
     static final String MOVIE_BASE_URL = "https://api.themoviedb.org/3/";
 
+    /** Constants for the disk-backed HTTP response cache used in Controller */
+    static final String HTTP_CACHE_DIRECTORY = "http_cache";
+    static final long HTTP_CACHE_SIZE_BYTES = 10 * 1024 * 1024;
+    /** Fresh and stale-while-revalidate windows (seconds) for list pages */
+    static final int HTTP_CACHE_LIST_MAX_AGE = 5 * 60;
+    static final int HTTP_CACHE_LIST_MAX_STALE = 24 * 60 * 60;
+    /** Fresh and stale-while-revalidate windows (seconds) for movie details */
+    static final int HTTP_CACHE_DETAIL_MAX_AGE = 24 * 60 * 60;
+    static final int HTTP_CACHE_DETAIL_MAX_STALE = 7 * 24 * 60 * 60;
+    /** Path segment that precedes the movie ID in the details endpoints */
+    static final String PATH_SEGMENT_MOVIE = "movie";
+
 
     /** Constants that are used to request the network call */
     public static final String API_KEY = BuildConfig.API_KEY;
     public static final String LANGUAGE = "en-US";
-    public static final int PAGE = 1;
-    public static final String CREDITS = "credits";
+    /** The detail request appends credits, videos and reviews, so one call loads the whole screen */
+    public static final String APPEND_TO_RESPONSE = "credits,videos,reviews";
+
+    /** Endpoint name used to key in-flight requests in MovieRepository */
+    public static final String ENDPOINT_DETAILS = "details";
 
     /** API Status code for invalid API key or Authentication failed */
     public static final int RESPONSE_CODE_API_STATUS = 401;
 
+    /** API Status code when the request rate limit is exceeded */
+    public static final int RESPONSE_CODE_TOO_MANY_REQUESTS = 429;
+
+    /** Server errors start at this status code */
+    public static final int RESPONSE_CODE_SERVER_ERROR = 500;
+
     /** A numeric constant for request code */
     public static final int REQUEST_CODE_DIALOG = 0;
 
@@ -37,9 +58,6 @@ public final class Constant {
     /** The base image URL to build the complete url that is necessary for fetching the image */
     public static final String IMAGE_BASE_URL = "https://image.tmdb.org/t/p/";
 
-    /** The image file size to build the complete url that is necessary for fetching the image*/
-    public static final String BACKDROP_FILE_SIZE ="w500";
-
     /** The YouTube base URL that is necessary for displaying trailers */
     public static final String YOUTUBE_BASE_URL = "https://www.youtube.com/watch?v=";
 
@@ -58,8 +76,31 @@ public final class Constant {
     public static final String SHARE_INTENT_TYPE_TEXT = "text/plain";
 
 
-    /** The image file size to build the complete url that is necessary for fetching the image */
-    public static final String IMAGE_FILE_SIZE = "w185";
+    /**
+     * The TMDb image sizes used to build image URLs, their widths in pixels, and the typical size
+     * of a poster in each of them. The last bucket is the original image.
+     */
+    public static final String[] IMAGE_SIZE_NAMES =
+            {"w92", "w154", "w185", "w342", "w500", "w780", "original"};
+    public static final int[] IMAGE_SIZE_WIDTHS = {92, 154, 185, 342, 500, 780, Integer.MAX_VALUE};
+    public static final int[] IMAGE_SIZE_ESTIMATED_BYTES =
+            {4 * 1024, 9 * 1024, 13 * 1024, 35 * 1024, 65 * 1024, 130 * 1024, 500 * 1024};
+
+    /** Index of the largest image size downloaded on a metered network, w780 */
+    public static final int IMAGE_SIZE_METERED_MAX_INDEX = 5;
+
+    /** How long the metered state of the network is reused when choosing image sizes */
+    public static final long NETWORK_CHECK_INTERVAL_MILLIS = 5000;
+
+    /** Most image URLs remembered as counted, so rebinding an image doesn't count it again */
+    public static final int IMAGE_STATS_MAX_URLS = 1000;
+
+    /** Bytes of posters queued or downloading at once, and the size assumed before any download */
+    public static final long POSTER_PREFETCH_BUDGET_BYTES = 1024 * 1024;
+    public static final long POSTER_PREFETCH_ESTIMATED_BYTES = 16 * 1024;
+
+    /** The image memory cache may use the app's memory class divided by this, about 15% */
+    public static final int IMAGE_MEMORY_CACHE_HEAP_DIVISOR = 7;
 
 
     /** Constant value for each fragment */
@@ -83,8 +124,6 @@ public final class Constant {
     /** Pattern used in FormatUtils */
     public static final String PATTERN_FORMAT_NUMBER = "#,###";
     public static final String PATTERN_FORMAT_CURRENCY = "$###,###";
-    public static final String PATTERN_FORMAT_DATE_INPUT = "yyyy-MM-dd";
-    public static final String PATTERN_FORMAT_DATE_OUTPUT = "MMM dd, yyyy";
 
     /** Constant used to make ImageView 3:2 aspect ratio or 2:3 aspect ratio */
     public static final int TWO = 2;
@@ -102,6 +141,26 @@ public final class Constant {
 
     public static final String DATABASE_NAME = "favoritemovies";
 
+    /** Age after which the stored browse catalog is downloaded again from the first page */
+    public static final long BROWSE_REFRESH_INTERVAL_MILLIS = 24 * 60 * 60 * 1000L;
+
+    /** Age after which cached movie details are downloaded again in the background */
+    public static final long DETAIL_REFRESH_INTERVAL_MILLIS = 24 * 60 * 60 * 1000L;
+
+    /**
+     * Bounds of the detail cache: details older than the age are evicted, and only the most
+     * recently downloaded movies are kept above the count. The details of favorites are kept.
+     */
+    public static final long DETAIL_CACHE_MAX_AGE_MILLIS = 7 * 24 * 60 * 60 * 1000L;
+    public static final int DETAIL_CACHE_MAX_MOVIES = 100;
+
+    /** Time the browse grid must rest before the details of the visible movies are prefetched */
+    public static final long DETAIL_PREFETCH_DWELL_MILLIS = 400;
+
+    /** Bounds of the speculative detail downloads */
+    public static final int DETAIL_PREFETCH_MAX_MOVIES = 6;
+    public static final int DETAIL_PREFETCH_MAX_CONCURRENT = 2;
+
     /** The number of threads in the pool used in AppExecutors */
     public static final int NUMBER_OF_THREADS_THREE = 3;
 
@@ -110,11 +169,27 @@ public final class Constant {
 
     /** Constants for pages used in MovieDataSource */
     public static final int PREVIOUS_PAGE_KEY_ONE = 1;
-    public static final int NEXT_PAGE_KEY_TWO = 2;
     public static final int PAGE_ONE = 1;
 
-    /** The number of fixed thread pools used in the MainActivityViewModel */
-    public static final int NUMBER_OF_FIXED_THREADS_FIVE = 5;
+    /** TMDb rejects page numbers above this one, whatever total_pages says */
+    public static final int TMDB_MAX_PAGE = 500;
+
+    /** Automatic retries of a failed page, the delay doubles from the base up to the maximum */
+    public static final long RETRY_BASE_DELAY_MILLIS = 1000;
+    public static final long RETRY_MAX_DELAY_MILLIS = 30 * 1000;
+    public static final int RETRY_MAX_ATTEMPTS = 5;
+
+    /** Time to wait after the last keystroke before searching online movies */
+    public static final long SEARCH_DEBOUNCE_MILLIS = 300;
+
+    /** Bounds and time to live of the in-memory cache of search result pages */
+    public static final int SEARCH_CACHE_MAX_ENTRIES = 40;
+    public static final int SEARCH_CACHE_MAX_BYTES = 512 * 1024;
+    public static final long SEARCH_CACHE_TTL_MILLIS = 2 * 60 * 1000;
+
+    /** The number of threads and thread name of the fetch executor in AppExecutors */
+    public static final int NUMBER_OF_FETCH_THREADS = 3;
+    public static final String FETCH_THREAD_NAME = "paging-fetch";
 
     /** Size hint for initial load of PagedList */
     public static final int INITIAL_LOAD_SIZE_HINT = 10;
@@ -122,6 +197,20 @@ public final class Constant {
     public static final int PAGE_SIZE = 20;
     /** Prefetch distance which defines how far ahead to load */
     public static final int PREFETCH_DISTANCE = 50;
+    /**
+     * Most movies the browse grid keeps loaded, the pages far from the viewport are dropped above
+     * it. Keep it well above the pages loaded on both sides of the viewport by the prefetch
+     * distance.
+     */
+    public static final int BROWSE_WINDOW_MAX_ITEMS = 300;
+    /** Estimated memory held by a movie loaded in a PagedList, with its title and overview */
+    public static final int PAGED_MOVIE_ESTIMATED_BYTES = 1024;
+    /**
+     * Most pages downloaded at once to bring back the movie the browse grid was showing, when it
+     * is past the stored pages. They are requested in parallel, each waited for up to the timeout.
+     */
+    public static final int RESUME_MAX_FETCH_PAGES = 5;
+    public static final long RESUME_FETCH_TIMEOUT_MILLIS = 10 * 1000;
 
     /** Constants for menu option in FavoriteAdapter */
     public static final String DELETE = "Delete";
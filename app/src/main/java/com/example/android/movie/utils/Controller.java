@@ -1,25 +1,71 @@
 package com.example.android.movie.utils;
 
+import android.content.Context;
+
+import com.example.android.movie.model.ModelTypeAdapterFactory;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
+import static com.example.android.movie.utils.Constant.HTTP_CACHE_DIRECTORY;
+import static com.example.android.movie.utils.Constant.HTTP_CACHE_SIZE_BYTES;
 import static com.example.android.movie.utils.Constant.MOVIE_BASE_URL;
 
 /**
- *  Create a singleton of Retrofit.
+ *  Create a singleton of Retrofit, backed by an OkHttpClient with a size-bounded disk cache.
+ *  The responses are decoded by the streaming adapters of {@link ModelTypeAdapterFactory}.
  */
 public class Controller {
 
     /** Static variable for Retrofit */
     private static Retrofit sRetrofit = null;
 
-    public static Retrofit getClient() {
+    /** Counters for cache hits, misses and revalidations */
+    private static final HttpCacheStats sCacheStats = new HttpCacheStats();
+
+    public static synchronized Retrofit getClient(Context context) {
         if (sRetrofit == null) {
             sRetrofit = new Retrofit.Builder()
                     .baseUrl(MOVIE_BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create())
+                    .client(buildOkHttpClient(context.getApplicationContext()))
+                    .addConverterFactory(GsonConverterFactory.create(buildGson()))
                     .build();
         }
         return sRetrofit;
     }
+
+    /**
+     * Returns the counters of the HTTP response cache
+     */
+    public static HttpCacheStats getCacheStats() {
+        return sCacheStats;
+    }
+
+    /**
+     * Returns a Gson that decodes the models without reflection
+     */
+    private static Gson buildGson() {
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+                .create();
+    }
+
+    private static OkHttpClient buildOkHttpClient(Context context) {
+        File cacheDirectory = new File(context.getCacheDir(), HTTP_CACHE_DIRECTORY);
+        HttpCacheInterceptor cacheInterceptor = new HttpCacheInterceptor(sCacheStats);
+
+        OkHttpClient client = new OkHttpClient.Builder()
+                .cache(new Cache(cacheDirectory, HTTP_CACHE_SIZE_BYTES))
+                .addInterceptor(cacheInterceptor)
+                .addNetworkInterceptor(new HttpCacheInterceptor.NetworkInterceptor())
+                .build();
+        cacheInterceptor.setClient(client);
+        return client;
+    }
 }
@@ -0,0 +1,37 @@
+package com.example.android.movie.utils;
+
+import android.support.annotation.Nullable;
+
+/**
+ * Wraps a value exposed through LiveData that must only be acted upon once, such as an error
+ * shown in a snackbar. The last value of a LiveData is delivered again to a new observer, e.g.
+ * after a rotation, and would show the snackbar again.
+ */
+public class Event<T> {
+
+    private final T mContent;
+    private boolean mHasBeenHandled;
+
+    public Event(T content) {
+        mContent = content;
+    }
+
+    /**
+     * Returns the content the first time it is asked for, null afterwards
+     */
+    @Nullable
+    public T getContentIfNotHandled() {
+        if (mHasBeenHandled) {
+            return null;
+        }
+        mHasBeenHandled = true;
+        return mContent;
+    }
+
+    /**
+     * Returns the content, whether it has been handled or not
+     */
+    public T peekContent() {
+        return mContent;
+    }
+}
@@ -4,28 +4,44 @@ import android.content.Context;
 
 import com.example.android.movie.R;
 
-import java.text.DecimalFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.Locale;
 import java.util.concurrent.TimeUnit;
 
+import static com.example.android.movie.utils.Constant.PATTERN_FORMAT_CURRENCY;
+import static com.example.android.movie.utils.Constant.PATTERN_FORMAT_NUMBER;
 import static com.example.android.movie.utils.Constant.ZERO;
 
 /**
  * Class for handling conversions that are useful for Movie.
+ * <p>
+ * The formatters are built once per thread and locale, see {@link Formatters}, so formatting
+ * doesn't create a DecimalFormat or SimpleDateFormat per call.
  */
 public class FormatUtils {
 
+    /** The formatters of each thread, rebuilt when the default locale changes */
+    private static final ThreadLocal<Formatters> sFormatters = new ThreadLocal<>();
+
+    /**
+     * Returns the formatters of the calling thread for the current default locale
+     */
+    private static Formatters formatters() {
+        Formatters formatters = sFormatters.get();
+        Locale locale = Locale.getDefault();
+        if (formatters == null || !formatters.isFor(locale)) {
+            formatters = new Formatters(locale, PATTERN_FORMAT_NUMBER, PATTERN_FORMAT_CURRENCY);
+            sFormatters.set(formatters);
+        }
+        return formatters;
+    }
+
     /**
      * This method will convert an integer number to a String in a certain format, commas in Numbers.
      * Returns a String with a comma after every third digit from right to left.
      * (e.g. 1000 -> 1,000)
      */
     public static String formatNumber(int number) {
-        DecimalFormat decimalFormat = new DecimalFormat(Constant.PATTERN_FORMAT_NUMBER);
-        return decimalFormat.format(number);
+        return formatters().formatNumber(number);
     }
 
     /**
@@ -34,27 +50,16 @@ public class FormatUtils {
      * (e.g. 100000000 -> $100,000,000)
      */
     public static String formatCurrency(long number) {
-        DecimalFormat decimalFormat = new DecimalFormat(Constant.PATTERN_FORMAT_CURRENCY);
-        return decimalFormat.format(number);
+        return formatters().formatCurrency(number);
     }
 
     /**
      * This method will used to format a date.
      * (e.g. 2018-06-23 -> Jun 23, 2018)
+     * A date that isn't yyyy-MM-dd is returned unchanged, and null as an empty string.
      */
     public static String formatDate(String releaseDate) {
-        SimpleDateFormat dateFormat = new SimpleDateFormat(
-                Constant.PATTERN_FORMAT_DATE_INPUT, Locale.getDefault());
-        Date date = null;
-        try {
-            date = dateFormat.parse(releaseDate);
-        } catch (ParseException e) {
-            e.printStackTrace();
-        }
-
-        SimpleDateFormat outputDateFormat = new SimpleDateFormat(
-                Constant.PATTERN_FORMAT_DATE_OUTPUT, Locale.getDefault());
-        return outputDateFormat.format(date);
+        return formatters().formatDate(releaseDate);
     }
 
     /**
@@ -0,0 +1,134 @@
+package com.example.android.movie.utils;
+
+import java.text.DateFormatSymbols;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * A set of number and date formatters for one locale, reused by {@link FormatUtils}.
+ * <p>
+ * DecimalFormat isn't thread-safe and is expensive to build, so each thread keeps its own
+ * Formatters and builds a new one only when the default locale changes. Release dates are parsed
+ * by hand, TMDb always sends them as yyyy-MM-dd, and formatted as "MMM dd, yyyy" without a
+ * SimpleDateFormat, Calendar or Date.
+ * <p>
+ * This class only depends on the JDK, so it can be benchmarked on the JVM.
+ */
+final class Formatters {
+
+    /** Returned by {@link #parseDate(String)} when the date isn't yyyy-MM-dd */
+    static final int INVALID_DATE = -1;
+
+    private static final int DATE_LENGTH = 10;
+    private static final int MONTH_SEPARATOR_INDEX = 4;
+    private static final int DAY_SEPARATOR_INDEX = 7;
+    private static final char DATE_SEPARATOR = '-';
+
+    private static final int[] DAYS_IN_MONTH = {31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private final Locale mLocale;
+    private final DecimalFormat mNumberFormat;
+    private final DecimalFormat mCurrencyFormat;
+    private final String[] mShortMonths;
+
+    /** Reused to build formatted dates, only touched by the owning thread */
+    private final StringBuilder mDateBuilder = new StringBuilder(DATE_LENGTH + 4);
+
+    /**
+     * Creates the formatters for the locale
+     *
+     * @param locale The locale of the symbols and month names
+     * @param numberPattern The DecimalFormat pattern of plain numbers
+     * @param currencyPattern The DecimalFormat pattern of amounts of money
+     */
+    Formatters(Locale locale, String numberPattern, String currencyPattern) {
+        mLocale = locale;
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        mNumberFormat = new DecimalFormat(numberPattern, symbols);
+        mCurrencyFormat = new DecimalFormat(currencyPattern, symbols);
+        mShortMonths = DateFormatSymbols.getInstance(locale).getShortMonths();
+    }
+
+    /**
+     * Returns true when the formatters were built for the locale
+     */
+    boolean isFor(Locale locale) {
+        return mLocale == locale || mLocale.equals(locale);
+    }
+
+    String formatNumber(long number) {
+        return mNumberFormat.format(number);
+    }
+
+    String formatCurrency(long number) {
+        return mCurrencyFormat.format(number);
+    }
+
+    /**
+     * Format a yyyy-MM-dd date as "MMM dd, yyyy" (e.g. 2018-06-23 -> Jun 23, 2018). A date that
+     * can't be parsed is returned as it is, and null as an empty string.
+     */
+    String formatDate(String date) {
+        int parsed = parseDate(date);
+        if (parsed == INVALID_DATE) {
+            return date == null ? "" : date;
+        }
+        int year = parsed / 10000;
+        int month = parsed / 100 % 100;
+        int day = parsed % 100;
+
+        StringBuilder builder = mDateBuilder;
+        builder.setLength(0);
+        builder.append(mShortMonths[month - 1]).append(' ');
+        if (day < 10) {
+            builder.append('0');
+        }
+        builder.append(day).append(", ");
+        for (int digits = 1000; digits > 1 && year < digits; digits /= 10) {
+            builder.append('0');
+        }
+        builder.append(year);
+        return builder.toString();
+    }
+
+    /**
+     * Parse a yyyy-MM-dd date without allocating
+     *
+     * @return The date packed as yyyyMMdd, or {@link #INVALID_DATE} when it isn't a valid date
+     */
+    static int parseDate(String date) {
+        if (date == null || date.length() != DATE_LENGTH
+                || date.charAt(MONTH_SEPARATOR_INDEX) != DATE_SEPARATOR
+                || date.charAt(DAY_SEPARATOR_INDEX) != DATE_SEPARATOR) {
+            return INVALID_DATE;
+        }
+        int year = parseDigits(date, 0, MONTH_SEPARATOR_INDEX);
+        int month = parseDigits(date, MONTH_SEPARATOR_INDEX + 1, DAY_SEPARATOR_INDEX);
+        int day = parseDigits(date, DAY_SEPARATOR_INDEX + 1, DATE_LENGTH);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > DAYS_IN_MONTH[month - 1]
+                || (month == 2 && day == 29 && !isLeapYear(year))) {
+            return INVALID_DATE;
+        }
+        return year * 10000 + month * 100 + day;
+    }
+
+    /**
+     * Returns the value of the ASCII digits between start and end, or -1 if one isn't a digit
+     */
+    private static int parseDigits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+}
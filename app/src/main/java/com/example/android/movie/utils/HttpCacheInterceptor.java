@@ -0,0 +1,149 @@
+package com.example.android.movie.utils;
+
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Application interceptor implementing a stale-while-revalidate policy on top of the OkHttp
+ * disk cache.
+ * <p>
+ * Every GET is allowed to accept a stale cached copy within the {@link HttpCachePolicy} window. When
+ * the cache hands back such a stale copy, it is returned to the caller right away and a network
+ * request is fired in the background to refresh the cache entry for the next caller.
+ */
+public class HttpCacheInterceptor implements Interceptor {
+
+    /** Tag for logging */
+    private static final String TAG = HttpCacheInterceptor.class.getSimpleName();
+
+    /** OkHttp adds this warning code to responses served from the cache after they expired */
+    private static final String WARNING_STALE_PREFIX = "110";
+
+    private static final String HEADER_WARNING = "Warning";
+
+    private final HttpCacheStats mStats;
+
+    /** Urls currently being revalidated, so one stale entry triggers only one background refresh */
+    private final Set<String> mRevalidating = Collections.synchronizedSet(new HashSet<String>());
+
+    /** The client used for background revalidation, set once the client has been built */
+    private OkHttpClient mClient;
+
+    public HttpCacheInterceptor(HttpCacheStats stats) {
+        mStats = stats;
+    }
+
+    void setClient(OkHttpClient client) {
+        mClient = client;
+    }
+
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+
+        // Background revalidations and explicit no-cache requests go straight through
+        if (!"GET".equals(request.method()) || request.cacheControl().noCache()) {
+            return chain.proceed(request);
+        }
+
+        HttpCachePolicy policy = HttpCachePolicy.forUrl(request.url());
+        Request staleRequest = request.newBuilder()
+                .cacheControl(new CacheControl.Builder()
+                        .maxStale(policy.getMaxStaleSeconds(), TimeUnit.SECONDS)
+                        .build())
+                .build();
+
+        Response response = chain.proceed(staleRequest);
+
+        if (response.networkResponse() == null && response.cacheResponse() != null) {
+            mStats.recordHit();
+            String warning = response.header(HEADER_WARNING);
+            if (warning != null && warning.startsWith(WARNING_STALE_PREFIX)) {
+                revalidate(request);
+            }
+        } else if (response.cacheResponse() != null) {
+            // Conditional GET answered by the server, usually a 304
+            mStats.recordRevalidation();
+        } else {
+            mStats.recordMiss();
+        }
+        return response;
+    }
+
+    /**
+     * Refresh the cache entry for the request in the background. The response body is discarded,
+     * OkHttp writes it to the cache as it's read.
+     */
+    private void revalidate(Request request) {
+        final String url = request.url().toString();
+        if (mClient == null || !mRevalidating.add(url)) {
+            return;
+        }
+        mStats.recordRevalidation();
+
+        Request networkRequest = request.newBuilder()
+                .cacheControl(CacheControl.FORCE_NETWORK)
+                .build();
+        mClient.newCall(networkRequest).enqueue(new Callback() {
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) throws IOException {
+                try {
+                    if (response.body() != null) {
+                        response.body().string();
+                    }
+                } finally {
+                    response.close();
+                    mRevalidating.remove(url);
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                mRevalidating.remove(url);
+                Log.e(TAG, "Failed revalidating cached response: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Network interceptor that rewrites the Cache-Control header of TMDb responses so they are
+     * stored with the TTL of their {@link HttpCachePolicy}.
+     */
+    public static class NetworkInterceptor implements Interceptor {
+
+        private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+        private static final String HEADER_PRAGMA = "Pragma";
+
+        @Override
+        public Response intercept(@NonNull Chain chain) throws IOException {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+            if (!response.isSuccessful()) {
+                return response;
+            }
+
+            HttpCachePolicy policy = HttpCachePolicy.forUrl(request.url());
+            CacheControl cacheControl = new CacheControl.Builder()
+                    .maxAge(policy.getMaxAgeSeconds(), TimeUnit.SECONDS)
+                    .build();
+            return response.newBuilder()
+                    .removeHeader(HEADER_PRAGMA)
+                    .header(HEADER_CACHE_CONTROL, cacheControl.toString())
+                    .build();
+        }
+    }
+}
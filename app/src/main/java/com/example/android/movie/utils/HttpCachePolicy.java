@@ -0,0 +1,67 @@
+package com.example.android.movie.utils;
+
+import java.util.List;
+
+import okhttp3.HttpUrl;
+
+import static com.example.android.movie.utils.Constant.HTTP_CACHE_DETAIL_MAX_AGE;
+import static com.example.android.movie.utils.Constant.HTTP_CACHE_DETAIL_MAX_STALE;
+import static com.example.android.movie.utils.Constant.HTTP_CACHE_LIST_MAX_AGE;
+import static com.example.android.movie.utils.Constant.HTTP_CACHE_LIST_MAX_STALE;
+
+/**
+ * The HttpCachePolicy defines how long a TMDb response stays fresh in the disk cache, and how long
+ * a stale copy may still be served while it is revalidated in the background.
+ * <p>
+ * List pages (movie/popular, movie/top_rated, search/movie) change often and get a short TTL.
+ * Details (movie/{id}, movie/{id}/reviews, movie/{id}/videos) rarely change and get a long one.
+ */
+public enum HttpCachePolicy {
+
+    LIST(HTTP_CACHE_LIST_MAX_AGE, HTTP_CACHE_LIST_MAX_STALE),
+    DETAIL(HTTP_CACHE_DETAIL_MAX_AGE, HTTP_CACHE_DETAIL_MAX_STALE);
+
+    /** Number of seconds a response is considered fresh */
+    private final int mMaxAgeSeconds;
+
+    /** Number of seconds after expiry a stale response may still be served while revalidating */
+    private final int mMaxStaleSeconds;
+
+    HttpCachePolicy(int maxAgeSeconds, int maxStaleSeconds) {
+        mMaxAgeSeconds = maxAgeSeconds;
+        mMaxStaleSeconds = maxStaleSeconds;
+    }
+
+    public int getMaxAgeSeconds() {
+        return mMaxAgeSeconds;
+    }
+
+    public int getMaxStaleSeconds() {
+        return mMaxStaleSeconds;
+    }
+
+    /**
+     * Returns the policy for the given request url. Paths under "movie/" followed by a numeric ID
+     * are details, everything else is treated as a list page.
+     */
+    public static HttpCachePolicy forUrl(HttpUrl url) {
+        List<String> segments = url.pathSegments();
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (Constant.PATH_SEGMENT_MOVIE.equals(segments.get(i))
+                    && isNumeric(segments.get(i + 1))) {
+                return DETAIL;
+            }
+        }
+        return LIST;
+    }
+
+    private static boolean isNumeric(String segment) {
+        if (segment.isEmpty()) return false;
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
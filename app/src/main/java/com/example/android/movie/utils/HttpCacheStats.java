@@ -0,0 +1,49 @@
+package com.example.android.movie.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counters for the disk-backed HTTP response cache used by {@link Controller}.
+ */
+public class HttpCacheStats {
+
+    /** Responses served entirely from the disk cache */
+    private final AtomicInteger mHitCount = new AtomicInteger();
+
+    /** Responses that had no usable cached copy and went to the network */
+    private final AtomicInteger mMissCount = new AtomicInteger();
+
+    /** Stale or conditional responses that were revalidated against the network */
+    private final AtomicInteger mRevalidationCount = new AtomicInteger();
+
+    void recordHit() {
+        mHitCount.incrementAndGet();
+    }
+
+    void recordMiss() {
+        mMissCount.incrementAndGet();
+    }
+
+    void recordRevalidation() {
+        mRevalidationCount.incrementAndGet();
+    }
+
+    public int getHitCount() {
+        return mHitCount.get();
+    }
+
+    public int getMissCount() {
+        return mMissCount.get();
+    }
+
+    public int getRevalidationCount() {
+        return mRevalidationCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCacheStats{hits=" + getHitCount()
+                + ", misses=" + getMissCount()
+                + ", revalidations=" + getRevalidationCount() + "}";
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.android.movie.utils;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.support.v4.util.LruCache;
+
+import com.example.android.movie.TrimmableCache;
+import com.squareup.picasso.Cache;
+
+import static com.example.android.movie.utils.Constant.IMAGE_MEMORY_CACHE_HEAP_DIVISOR;
+
+/**
+ * Picasso's memory cache, an LRU of decoded bitmaps bounded by their size in bytes.
+ * <p>
+ * Picasso's own LruCache can only be cleared as a whole, this one can also be trimmed to a
+ * fraction of its size, so the {@link com.example.android.movie.CacheRegistry} can keep the
+ * images on screen while memory is only getting low.
+ */
+public class ImageMemoryCache implements Cache, TrimmableCache {
+
+    /** Picasso appends the request options to the URI after this separator */
+    private static final char KEY_SEPARATOR = '\n';
+
+    private final LruCache<String, Bitmap> mCache;
+
+    public ImageMemoryCache(Context context) {
+        ActivityManager activityManager =
+                (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        int maxBytes = activityManager.getMemoryClass() * 1024 * 1024
+                / IMAGE_MEMORY_CACHE_HEAP_DIVISOR;
+        mCache = new LruCache<String, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getRowBytes() * bitmap.getHeight();
+            }
+        };
+    }
+
+    @Override
+    public Bitmap get(String key) {
+        return mCache.get(key);
+    }
+
+    @Override
+    public void set(String key, Bitmap bitmap) {
+        mCache.put(key, bitmap);
+    }
+
+    @Override
+    public int size() {
+        return mCache.size();
+    }
+
+    @Override
+    public int maxSize() {
+        return mCache.maxSize();
+    }
+
+    @Override
+    public void clear() {
+        mCache.evictAll();
+    }
+
+    @Override
+    public void clearKeyUri(String uri) {
+        for (String key : mCache.snapshot().keySet()) {
+            if (key.startsWith(uri) && key.length() > uri.length()
+                    && key.charAt(uri.length()) == KEY_SEPARATOR) {
+                mCache.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public int getSizeBytes() {
+        return mCache.size();
+    }
+
+    @Override
+    public int trimTo(float fraction) {
+        int sizeBefore = mCache.size();
+        if (fraction <= 0f) {
+            mCache.evictAll();
+        } else {
+            mCache.trimToSize((int) (sizeBefore * fraction));
+        }
+        return sizeBefore - mCache.size();
+    }
+}
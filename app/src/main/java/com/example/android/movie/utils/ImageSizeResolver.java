@@ -0,0 +1,221 @@
+package com.example.android.movie.utils;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.os.SystemClock;
+import android.support.v4.net.ConnectivityManagerCompat;
+import android.util.Log;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.example.android.movie.BuildConfig;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.example.android.movie.utils.Constant.IMAGE_BASE_URL;
+import static com.example.android.movie.utils.Constant.IMAGE_SIZE_ESTIMATED_BYTES;
+import static com.example.android.movie.utils.Constant.IMAGE_SIZE_METERED_MAX_INDEX;
+import static com.example.android.movie.utils.Constant.IMAGE_SIZE_NAMES;
+import static com.example.android.movie.utils.Constant.IMAGE_SIZE_WIDTHS;
+import static com.example.android.movie.utils.Constant.IMAGE_STATS_MAX_URLS;
+import static com.example.android.movie.utils.Constant.NETWORK_CHECK_INTERVAL_MILLIS;
+
+/**
+ * Builds TMDb image URLs with the size bucket that fits the view the image is loaded into.
+ * <p>
+ * The target width is the measured width of the view, its fixed layout width, or, before the view
+ * is laid out, the width last measured on the same screen, falling back to its share of the screen
+ * width. Prefetches use the same width, so they land under the URL the bind asks for. On an
+ * unmetered network the smallest bucket at least
+ * as wide as the target is used. On a metered network the largest bucket no wider than the target
+ * is used, capped at w780, so a two column phone grid doesn't download tablet sized posters.
+ * <p>
+ * In debug builds the buckets and estimated bytes of the images bound are recorded per screen,
+ * each URL once, and {@link #logStats()} logs them. Prefetches aren't recorded.
+ */
+public class ImageSizeResolver {
+
+    /** Tag for logging */
+    private static final String TAG = ImageSizeResolver.class.getSimpleName();
+
+    /** Screens the images are loaded for */
+    public static final String SCREEN_GRID = "grid";
+    public static final String SCREEN_FAVORITES = "favorites";
+    public static final String SCREEN_CAST = "cast";
+    public static final String SCREEN_BACKDROP = "backdrop";
+
+    private static final Object LOCK = new Object();
+    private static ImageSizeResolver sInstance;
+
+    private final ConnectivityManager mConnectivityManager;
+    private final int mScreenWidth;
+
+    private boolean mIsMetered;
+    private long mNetworkCheckedAt;
+    private boolean mIsNetworkChecked;
+
+    private final Map<String, ScreenStats> mScreenStats = new HashMap<>();
+
+    /** The width of the views last measured on each screen */
+    private final Map<String, Integer> mMeasuredWidths = new HashMap<>();
+
+    /** The URLs already recorded, the least recently bound is forgotten first */
+    private final Map<String, Boolean> mRecordedUrls =
+            new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > IMAGE_STATS_MAX_URLS;
+                }
+            };
+
+    private ImageSizeResolver(Context context) {
+        mConnectivityManager = (ConnectivityManager)
+                context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        mScreenWidth = context.getResources().getDisplayMetrics().widthPixels;
+    }
+
+    public static ImageSizeResolver getInstance(Context context) {
+        if (sInstance == null) {
+            synchronized (LOCK) {
+                sInstance = new ImageSizeResolver(context.getApplicationContext());
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * Returns the URL of the image in the bucket that fits the target view, and records it for the
+     * screen in debug builds
+     *
+     * @param screen The screen the image is shown on, one of the SCREEN constants
+     * @param path The image path from TMDb, e.g. "/abc.jpg"
+     * @param target The view the image is loaded into
+     * @param columns The number of images side by side across the screen width
+     */
+    public synchronized String resolve(String screen, String path, View target, int columns) {
+        int bucket = chooseBucket(targetWidth(screen, target, columns), isMetered());
+        String url = IMAGE_BASE_URL + IMAGE_SIZE_NAMES[bucket] + path;
+        if (BuildConfig.DEBUG && mRecordedUrls.put(url, Boolean.TRUE) == null) {
+            record(screen, bucket);
+        }
+        return url;
+    }
+
+    /**
+     * Returns the URL an image of the screen will be bound with, for a prefetch. It isn't
+     * recorded.
+     *
+     * @param screen The screen the image will be shown on, one of the SCREEN constants
+     * @param path The image path from TMDb, e.g. "/abc.jpg"
+     * @param columns The number of images side by side across the screen width
+     */
+    public synchronized String resolveForPrefetch(String screen, String path, int columns) {
+        int bucket = chooseBucket(targetWidth(screen, null, columns), isMetered());
+        return IMAGE_BASE_URL + IMAGE_SIZE_NAMES[bucket] + path;
+    }
+
+    /**
+     * Returns the index of the bucket for the target width
+     */
+    static int chooseBucket(int targetWidth, boolean isMetered) {
+        int maxIndex = isMetered ? IMAGE_SIZE_METERED_MAX_INDEX : IMAGE_SIZE_NAMES.length - 1;
+        if (isMetered) {
+            for (int i = maxIndex; i > 0; i--) {
+                if (IMAGE_SIZE_WIDTHS[i] <= targetWidth) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+        for (int i = 0; i < maxIndex; i++) {
+            if (IMAGE_SIZE_WIDTHS[i] >= targetWidth) {
+                return i;
+            }
+        }
+        return maxIndex;
+    }
+
+    private int targetWidth(String screen, View target, int columns) {
+        if (target != null) {
+            int width = target.getWidth();
+            if (width <= 0) {
+                ViewGroup.LayoutParams layoutParams = target.getLayoutParams();
+                width = layoutParams == null ? 0 : layoutParams.width;
+            }
+            if (width > 0) {
+                mMeasuredWidths.put(screen, width);
+                return width;
+            }
+        }
+        Integer measuredWidth = mMeasuredWidths.get(screen);
+        return measuredWidth != null ? measuredWidth : mScreenWidth / Math.max(columns, 1);
+    }
+
+    /**
+     * Returns true on a metered network. The answer is reused for a few seconds, so binding a
+     * screen of images asks the ConnectivityManager once.
+     */
+    private synchronized boolean isMetered() {
+        long now = SystemClock.elapsedRealtime();
+        if (!mIsNetworkChecked || now - mNetworkCheckedAt > NETWORK_CHECK_INTERVAL_MILLIS) {
+            mIsMetered = ConnectivityManagerCompat.isActiveNetworkMetered(mConnectivityManager);
+            mNetworkCheckedAt = now;
+            mIsNetworkChecked = true;
+        }
+        return mIsMetered;
+    }
+
+    private void record(String screen, int bucket) {
+        ScreenStats stats = mScreenStats.get(screen);
+        if (stats == null) {
+            stats = new ScreenStats();
+            mScreenStats.put(screen, stats);
+        }
+        stats.mBucketCounts[bucket]++;
+        stats.mEstimatedBytes += IMAGE_SIZE_ESTIMATED_BYTES[bucket];
+    }
+
+    /**
+     * Returns the estimated bytes of the images resolved for the screen
+     */
+    public synchronized long getEstimatedBytes(String screen) {
+        ScreenStats stats = mScreenStats.get(screen);
+        return stats == null ? 0 : stats.mEstimatedBytes;
+    }
+
+    /**
+     * Returns the number of images resolved to each bucket for the screen, in the order of
+     * {@link Constant#IMAGE_SIZE_NAMES}
+     */
+    public synchronized int[] getBucketCounts(String screen) {
+        ScreenStats stats = mScreenStats.get(screen);
+        return stats == null ? new int[IMAGE_SIZE_NAMES.length] : stats.mBucketCounts.clone();
+    }
+
+    /**
+     * Log the buckets and estimated bytes recorded for every screen
+     */
+    public synchronized void logStats() {
+        for (Map.Entry<String, ScreenStats> entry : mScreenStats.entrySet()) {
+            StringBuilder buckets = new StringBuilder();
+            int[] counts = entry.getValue().mBucketCounts;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    buckets.append(IMAGE_SIZE_NAMES[i]).append('=').append(counts[i]).append(' ');
+                }
+            }
+            Log.d(TAG, entry.getKey() + ": " + buckets + "~" + entry.getValue().mEstimatedBytes
+                    + " bytes");
+        }
+    }
+
+    /**
+     * The buckets chosen on a screen and their estimated bytes
+     */
+    private static final class ScreenStats {
+        private final int[] mBucketCounts = new int[IMAGE_SIZE_NAMES.length];
+        private long mEstimatedBytes;
+    }
+}
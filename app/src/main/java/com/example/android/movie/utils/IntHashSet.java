@@ -0,0 +1,124 @@
+package com.example.android.movie.utils;
+
+import java.util.Arrays;
+
+/**
+ * A set of ints kept in a single open addressing array, without boxing each value into an Integer
+ * the way a HashSet does. It is used to remember the ids of the movies already shown in a list.
+ * <p>
+ * This class isn't thread-safe.
+ */
+public final class IntHashSet {
+
+    /** Marks an empty slot, so 0 is stored separately */
+    private static final int EMPTY = 0;
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** The table is grown when it gets fuller than this, keeping probe sequences short */
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] mTable;
+    private int mSize;
+    private boolean mContainsZero;
+
+    public IntHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize The number of values expected, so the table doesn't have to grow
+     */
+    public IntHashSet(int expectedSize) {
+        mTable = new int[tableSizeFor(expectedSize)];
+    }
+
+    /**
+     * Add the value to the set
+     *
+     * @return true if the value wasn't in the set yet
+     */
+    public boolean add(int value) {
+        if (value == EMPTY) {
+            if (mContainsZero) {
+                return false;
+            }
+            mContainsZero = true;
+            mSize++;
+            return true;
+        }
+        int mask = mTable.length - 1;
+        int index = mix(value) & mask;
+        while (mTable[index] != EMPTY) {
+            if (mTable[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        mTable[index] = value;
+        mSize++;
+        if (mSize > mTable.length * LOAD_FACTOR) {
+            rehash(mTable.length * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        if (value == EMPTY) {
+            return mContainsZero;
+        }
+        int mask = mTable.length - 1;
+        int index = mix(value) & mask;
+        while (mTable[index] != EMPTY) {
+            if (mTable[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return mSize;
+    }
+
+    public void clear() {
+        Arrays.fill(mTable, EMPTY);
+        mSize = 0;
+        mContainsZero = false;
+    }
+
+    private void rehash(int newLength) {
+        int[] oldTable = mTable;
+        mTable = new int[newLength];
+        int mask = newLength - 1;
+        for (int value : oldTable) {
+            if (value != EMPTY) {
+                int index = mix(value) & mask;
+                while (mTable[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                mTable[index] = value;
+            }
+        }
+    }
+
+    /**
+     * Spread the bits of the value, movie ids are close to each other
+     */
+    private static int mix(int value) {
+        int hash = value * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns the power of two table length holding the expected size under the load factor
+     */
+    private static int tableSizeFor(int expectedSize) {
+        int length = 2;
+        while (length * LOAD_FACTOR < expectedSize) {
+            length <<= 1;
+        }
+        return length;
+    }
+}
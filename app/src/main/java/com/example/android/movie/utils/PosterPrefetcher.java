@@ -0,0 +1,138 @@
+package com.example.android.movie.utils;
+
+import android.content.Context;
+import android.support.annotation.MainThread;
+import android.util.Log;
+
+import com.example.android.movie.model.Movie;
+import com.squareup.picasso.Callback;
+import com.squareup.picasso.MemoryPolicy;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.StatsSnapshot;
+
+import java.util.List;
+
+import static com.example.android.movie.utils.Constant.GRID_SPAN_COUNT;
+import static com.example.android.movie.utils.Constant.POSTER_PREFETCH_BUDGET_BYTES;
+import static com.example.android.movie.utils.Constant.POSTER_PREFETCH_ESTIMATED_BYTES;
+import static com.example.android.movie.utils.ImageSizeResolver.SCREEN_GRID;
+
+/**
+ * Downloads the posters of movie pages that have been loaded but not bound yet, so the grid
+ * doesn't show blank posters while flinging.
+ * <p>
+ * Posters are fetched into Picasso's disk cache at low priority without taking space in the
+ * memory cache. The byte budget, estimated from the average poster Picasso has downloaded so far,
+ * caps the posters queued or downloading at once: each poster gives its bytes back when it
+ * finishes, so a long fling keeps being prefetched, while posters that don't fit while the queue is
+ * full are skipped. {@link #cancel()} drops the queued posters and resets the budget when the sort
+ * criteria or the search changes.
+ */
+public class PosterPrefetcher {
+
+    /** Tag for logging */
+    private static final String TAG = PosterPrefetcher.class.getSimpleName();
+
+    private static final Object LOCK = new Object();
+    private static PosterPrefetcher sInstance;
+
+    private final Picasso mPicasso;
+    private final ImageSizeResolver mImageSizeResolver;
+
+    /** Tag of the requests made for the current list, replaced when they are cancelled */
+    private Object mRequestTag = new Object();
+
+    private final PrefetchBudget mBudget = new PrefetchBudget(POSTER_PREFETCH_BUDGET_BYTES);
+
+    private PosterPrefetcher(Picasso picasso, ImageSizeResolver imageSizeResolver) {
+        mPicasso = picasso;
+        mImageSizeResolver = imageSizeResolver;
+    }
+
+    public static PosterPrefetcher getInstance(Context context) {
+        if (sInstance == null) {
+            synchronized (LOCK) {
+                sInstance = new PosterPrefetcher(Picasso.with(context.getApplicationContext()),
+                        ImageSizeResolver.getInstance(context));
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * Queue the posters of a loaded page that fit in the budget
+     *
+     * @param movies The movies of the page
+     */
+    public synchronized void prefetch(List<Movie> movies) {
+        if (movies == null) {
+            return;
+        }
+        long posterBytes = estimatePosterBytes();
+        for (Movie movie : movies) {
+            if (movie.getPosterPath() == null) {
+                continue;
+            }
+            if (!mBudget.tryAcquire(posterBytes)) {
+                Log.d(TAG, "Poster prefetch budget in use, skipped the rest of the page");
+                return;
+            }
+            // Resolved like the grid binds them, so the posters land under the same URLs
+            mPicasso.load(mImageSizeResolver.resolveForPrefetch(
+                    SCREEN_GRID, movie.getPosterPath(), GRID_SPAN_COUNT))
+                    .priority(Picasso.Priority.LOW)
+                    .memoryPolicy(MemoryPolicy.NO_STORE)
+                    .tag(mRequestTag)
+                    .fetch(new ReleaseCallback(mRequestTag, posterBytes));
+        }
+    }
+
+    /**
+     * Cancel the queued posters and reset the budget for a new list
+     */
+    @MainThread
+    public synchronized void cancel() {
+        mPicasso.cancelTag(mRequestTag);
+        mRequestTag = new Object();
+        mBudget.reset();
+    }
+
+    /**
+     * Give the bytes of a finished poster back, unless the budget was reset since it was queued
+     */
+    private synchronized void release(Object requestTag, long bytes) {
+        if (requestTag == mRequestTag) {
+            mBudget.release(bytes);
+        }
+    }
+
+    private long estimatePosterBytes() {
+        StatsSnapshot snapshot = mPicasso.getSnapshot();
+        return snapshot.downloadCount > 0 && snapshot.averageDownloadSize > 0
+                ? snapshot.averageDownloadSize : POSTER_PREFETCH_ESTIMATED_BYTES;
+    }
+
+    /**
+     * Gives the bytes of a poster back to the budget once it is in the disk cache or failed
+     */
+    private class ReleaseCallback implements Callback {
+
+        private final Object mTag;
+        private final long mBytes;
+
+        ReleaseCallback(Object tag, long bytes) {
+            mTag = tag;
+            mBytes = bytes;
+        }
+
+        @Override
+        public void onSuccess() {
+            release(mTag, mBytes);
+        }
+
+        @Override
+        public void onError() {
+            release(mTag, mBytes);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.android.movie.utils;
+
+/**
+ * Counts the estimated bytes of the prefetches that are queued or downloading. A prefetch takes
+ * its bytes when it is queued and gives them back when it finishes, so the budget caps the work in
+ * flight instead of everything prefetched for a list.
+ * <p>
+ * This class isn't thread-safe.
+ */
+final class PrefetchBudget {
+
+    private final long mMaxBytes;
+    private long mInFlightBytes;
+
+    /**
+     * @param maxBytes The most bytes that can be in flight at once
+     */
+    PrefetchBudget(long maxBytes) {
+        mMaxBytes = maxBytes;
+    }
+
+    /**
+     * Take the bytes of a prefetch about to be queued
+     *
+     * @return false if they don't fit in what is left, and nothing was taken
+     */
+    boolean tryAcquire(long bytes) {
+        if (mInFlightBytes + bytes > mMaxBytes) {
+            return false;
+        }
+        mInFlightBytes += bytes;
+        return true;
+    }
+
+    /**
+     * Give back the bytes of a prefetch that finished or failed
+     */
+    void release(long bytes) {
+        mInFlightBytes = Math.max(0, mInFlightBytes - bytes);
+    }
+
+    /**
+     * Forget the prefetches in flight, after they have been cancelled
+     */
+    void reset() {
+        mInFlightBytes = 0;
+    }
+
+    long getInFlightBytes() {
+        return mInFlightBytes;
+    }
+}
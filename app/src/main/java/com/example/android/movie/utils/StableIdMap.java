@@ -0,0 +1,31 @@
+package com.example.android.movie.utils;
+
+import android.support.annotation.MainThread;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gives each string key a unique long, for the stable ids of a RecyclerView adapter whose items
+ * are identified by strings. Hashing the strings would let two items share an id.
+ * <p>
+ * The ids are only handed out on the main thread, where RecyclerView asks for them.
+ */
+public class StableIdMap {
+
+    private final Map<String, Long> mIds = new HashMap<>();
+    private long mNextId;
+
+    /**
+     * Returns the id of the key, the same one each time it is asked for
+     */
+    @MainThread
+    public long getId(String key) {
+        Long id = mIds.get(key);
+        if (id == null) {
+            id = mNextId++;
+            mIds.put(key, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.android.movie;
+
+import org.junit.Test;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_BACKGROUND;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_COMPLETE;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_MODERATE;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN;
+import static com.example.android.movie.CacheRegistry.PRIORITY_HIGH;
+import static com.example.android.movie.CacheRegistry.PRIORITY_LOW;
+import static com.example.android.movie.CacheRegistry.keepFraction;
+import static org.junit.Assert.assertEquals;
+
+public class CacheRegistryTest {
+
+    private static final float DELTA = 0f;
+
+    @Test
+    public void keepFraction_uiHidden_keepsEverything() {
+        assertEquals(1f, keepFraction(TRIM_MEMORY_UI_HIDDEN, PRIORITY_LOW), DELTA);
+        assertEquals(1f, keepFraction(TRIM_MEMORY_UI_HIDDEN, PRIORITY_HIGH), DELTA);
+    }
+
+    @Test
+    public void keepFraction_runningLevels_trimLowPriorityFirst() {
+        assertEquals(0.5f, keepFraction(TRIM_MEMORY_RUNNING_MODERATE, PRIORITY_LOW), DELTA);
+        assertEquals(1f, keepFraction(TRIM_MEMORY_RUNNING_MODERATE, PRIORITY_HIGH), DELTA);
+        assertEquals(0f, keepFraction(TRIM_MEMORY_RUNNING_LOW, PRIORITY_LOW), DELTA);
+        assertEquals(0.75f, keepFraction(TRIM_MEMORY_RUNNING_LOW, PRIORITY_HIGH), DELTA);
+        assertEquals(0f, keepFraction(TRIM_MEMORY_RUNNING_CRITICAL, PRIORITY_LOW), DELTA);
+        assertEquals(0.5f, keepFraction(TRIM_MEMORY_RUNNING_CRITICAL, PRIORITY_HIGH), DELTA);
+    }
+
+    @Test
+    public void keepFraction_backgroundLevels_onlyClearAtComplete() {
+        assertEquals(1f, keepFraction(TRIM_MEMORY_BACKGROUND, PRIORITY_HIGH), DELTA);
+        assertEquals(0.75f, keepFraction(TRIM_MEMORY_MODERATE, PRIORITY_HIGH), DELTA);
+        assertEquals(0f, keepFraction(TRIM_MEMORY_COMPLETE, PRIORITY_LOW), DELTA);
+        assertEquals(0f, keepFraction(TRIM_MEMORY_COMPLETE, PRIORITY_HIGH), DELTA);
+    }
+
+    @Test
+    public void keepFraction_noPressure_keepsEverything() {
+        assertEquals(1f, keepFraction(0, PRIORITY_LOW), DELTA);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.android.movie.data;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static com.example.android.movie.data.FavoriteSearchIndex.toMatchExpression;
+import static org.junit.Assert.assertEquals;
+
+public class FavoriteSearchIndexTest {
+
+    @Test
+    public void toMatchExpression_words_becomeLowerCasePrefixes() {
+        assertEquals("star* wa*", toMatchExpression("Star wa"));
+        assertEquals("2001*", toMatchExpression("  2001 "));
+    }
+
+    @Test
+    public void toMatchExpression_operators_areSeparators() {
+        assertEquals("a* b* or* c*", toMatchExpression("a\"b OR c*"));
+        assertEquals("x* y*", toMatchExpression("x-(y)"));
+    }
+
+    @Test
+    public void toMatchExpression_turkishLocale_keepsTheDottedI() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            assertEquals("inception*", toMatchExpression("INCEPTION"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void toMatchExpression_noWords_isEmpty() {
+        assertEquals("", toMatchExpression(null));
+        assertEquals("", toMatchExpression(""));
+        assertEquals("", toMatchExpression(" *\" "));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.android.movie.data;
+
+import com.example.android.movie.model.Movie;
+import com.example.android.movie.model.MovieResponse;
+import com.example.android.movie.utils.IntHashSet;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.android.movie.utils.Constant.RETRY_BASE_DELAY_MILLIS;
+import static com.example.android.movie.utils.Constant.RETRY_MAX_DELAY_MILLIS;
+import static com.example.android.movie.utils.Constant.TMDB_MAX_PAGE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MovieDataSourceTest {
+
+    private static Movie movie(int id) {
+        return new Movie(id, "Title " + id, "Title " + id, null, null, 0, null, null);
+    }
+
+    private static MovieResponse page(int totalPages, int... movieIds) {
+        List<Movie> movies = new ArrayList<>();
+        for (int movieId : movieIds) {
+            movies.add(movie(movieId));
+        }
+        MovieResponse response = new MovieResponse();
+        response.setTotalPages(totalPages);
+        response.setMovieResults(movies);
+        return response;
+    }
+
+    private static List<Integer> ids(List<Movie> movies) {
+        List<Integer> ids = new ArrayList<>();
+        for (Movie movie : movies) {
+            ids.add(movie.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void nextKey_beforeLastPage_isNextPage() {
+        assertEquals(Integer.valueOf(2), MovieDataSource.nextKey(1, page(3, 1, 2)));
+    }
+
+    @Test
+    public void nextKey_lastPage_isNull() {
+        assertNull(MovieDataSource.nextKey(3, page(3, 1, 2)));
+    }
+
+    @Test
+    public void nextKey_emptyPage_isNull() {
+        assertNull(MovieDataSource.nextKey(1, page(3)));
+        MovieResponse noResults = new MovieResponse();
+        noResults.setTotalPages(3);
+        assertNull(MovieDataSource.nextKey(1, noResults));
+    }
+
+    @Test
+    public void nextKey_totalPagesAboveApiLimit_stopsAtLimit() {
+        assertEquals(Integer.valueOf(TMDB_MAX_PAGE),
+                MovieDataSource.nextKey(TMDB_MAX_PAGE - 1, page(1000, 1)));
+        assertNull(MovieDataSource.nextKey(TMDB_MAX_PAGE, page(1000, 1)));
+    }
+
+    @Test
+    public void removeRepeats_acrossPages_dropsMoviesAlreadySeen() {
+        IntHashSet seenIds = new IntHashSet();
+        List<Movie> firstPage = page(2, 1, 2, 3).getMovieResults();
+        assertSame(firstPage, MovieDataSource.removeRepeats(firstPage, seenIds));
+
+        List<Movie> secondPage = page(2, 3, 4, 1, 5).getMovieResults();
+        assertEquals(Arrays.asList(4, 5),
+                ids(MovieDataSource.removeRepeats(secondPage, seenIds)));
+    }
+
+    @Test
+    public void removeRepeats_withinPage_keepsFirst() {
+        List<Movie> movies = page(1, 7, 7, 8).getMovieResults();
+        assertEquals(Arrays.asList(7, 8),
+                ids(MovieDataSource.removeRepeats(movies, new IntHashSet())));
+    }
+
+    @Test
+    public void removeRepeats_onlyRepeats_isEmpty() {
+        IntHashSet seenIds = new IntHashSet();
+        seenIds.add(1);
+        assertEquals(Collections.<Integer>emptyList(),
+                ids(MovieDataSource.removeRepeats(page(1, 1, 1).getMovieResults(), seenIds)));
+    }
+
+    @Test
+    public void backoffDelayMillis_doublesWithinJitter() {
+        Random random = new Random(42);
+        for (int attempt = 0; attempt < 4; attempt++) {
+            long delay = RETRY_BASE_DELAY_MILLIS << attempt;
+            for (int i = 0; i < 100; i++) {
+                long backoff = MovieDataSource.backoffDelayMillis(attempt, random);
+                assertTrue(backoff >= delay / 2 && backoff <= delay);
+            }
+        }
+    }
+
+    @Test
+    public void backoffDelayMillis_manyAttempts_isCappedAtMaximum() {
+        Random random = new Random(42);
+        for (int attempt : new int[]{10, 16, 17, 63, Integer.MAX_VALUE}) {
+            long backoff = MovieDataSource.backoffDelayMillis(attempt, random);
+            assertTrue(backoff >= RETRY_MAX_DELAY_MILLIS / 2 && backoff <= RETRY_MAX_DELAY_MILLIS);
+        }
+    }
+}
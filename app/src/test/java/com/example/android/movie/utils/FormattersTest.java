@@ -0,0 +1,56 @@
+package com.example.android.movie.utils;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+public class FormattersTest {
+
+    private final Formatters mFormatters = new Formatters(Locale.US, "#,###", "$#,###");
+
+    @Test
+    public void parseDate_validDate_isPacked() {
+        assertEquals(20180623, Formatters.parseDate("2018-06-23"));
+    }
+
+    @Test
+    public void parseDate_leapDay_onlyInLeapYears() {
+        assertEquals(20000229, Formatters.parseDate("2000-02-29"));
+        assertEquals(20160229, Formatters.parseDate("2016-02-29"));
+        assertEquals(Formatters.INVALID_DATE, Formatters.parseDate("1900-02-29"));
+        assertEquals(Formatters.INVALID_DATE, Formatters.parseDate("2018-02-29"));
+    }
+
+    @Test
+    public void parseDate_invalidDates_areRejected() {
+        assertEquals(Formatters.INVALID_DATE, Formatters.parseDate(null));
+        assertEquals(Formatters.INVALID_DATE, Formatters.parseDate(""));
+        assertEquals(Formatters.INVALID_DATE, Formatters.parseDate("2018-6-23"));
+        assertEquals(Formatters.INVALID_DATE, Formatters.parseDate("2018/06/23"));
+        assertEquals(Formatters.INVALID_DATE, Formatters.parseDate("2018-13-01"));
+        assertEquals(Formatters.INVALID_DATE, Formatters.parseDate("2018-00-10"));
+        assertEquals(Formatters.INVALID_DATE, Formatters.parseDate("2018-04-31"));
+        assertEquals(Formatters.INVALID_DATE, Formatters.parseDate("2018-06-00"));
+        assertEquals(Formatters.INVALID_DATE, Formatters.parseDate("20a8-06-23"));
+    }
+
+    @Test
+    public void formatDate_validDate_isShortMonthDayYear() {
+        assertEquals("Jun 23, 2018", mFormatters.formatDate("2018-06-23"));
+        assertEquals("Jan 05, 0999", mFormatters.formatDate("0999-01-05"));
+    }
+
+    @Test
+    public void formatDate_invalidDate_isReturnedAsIs() {
+        assertEquals("soon", mFormatters.formatDate("soon"));
+        assertEquals("", mFormatters.formatDate(null));
+    }
+
+    @Test
+    public void formatNumbers_useLocalePatterns() {
+        assertEquals("1,234,567", mFormatters.formatNumber(1234567));
+        assertEquals("$1,500", mFormatters.formatCurrency(1500));
+    }
+}
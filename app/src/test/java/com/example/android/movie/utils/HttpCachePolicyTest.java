@@ -0,0 +1,36 @@
+package com.example.android.movie.utils;
+
+import org.junit.Test;
+
+import okhttp3.HttpUrl;
+
+import static org.junit.Assert.assertEquals;
+
+public class HttpCachePolicyTest {
+
+    private static HttpCachePolicy forPath(String path) {
+        return HttpCachePolicy.forUrl(
+                HttpUrl.parse("https://api.themoviedb.org/3/" + path + "?api_key=key"));
+    }
+
+    @Test
+    public void forUrl_movieWithId_isDetail() {
+        assertEquals(HttpCachePolicy.DETAIL, forPath("movie/550"));
+        assertEquals(HttpCachePolicy.DETAIL, forPath("movie/550/reviews"));
+        assertEquals(HttpCachePolicy.DETAIL, forPath("movie/550/videos"));
+    }
+
+    @Test
+    public void forUrl_listPages_areList() {
+        assertEquals(HttpCachePolicy.LIST, forPath("movie/popular"));
+        assertEquals(HttpCachePolicy.LIST, forPath("movie/top_rated"));
+        assertEquals(HttpCachePolicy.LIST, forPath("search/movie"));
+        assertEquals(HttpCachePolicy.LIST, forPath("movie/"));
+    }
+
+    @Test
+    public void detailResponses_stayFreshLongerThanLists() {
+        assertEquals(true, HttpCachePolicy.DETAIL.getMaxAgeSeconds()
+                > HttpCachePolicy.LIST.getMaxAgeSeconds());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.android.movie.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ImageSizeResolverTest {
+
+    /** Indexes of Constant.IMAGE_SIZE_NAMES */
+    private static final int W92 = 0;
+    private static final int W342 = 3;
+    private static final int W500 = 4;
+    private static final int W780 = 5;
+    private static final int ORIGINAL = 6;
+
+    @Test
+    public void chooseBucket_unmetered_isSmallestAtLeastAsWide() {
+        assertEquals(W92, ImageSizeResolver.chooseBucket(1, false));
+        assertEquals(W342, ImageSizeResolver.chooseBucket(340, false));
+        assertEquals(W342, ImageSizeResolver.chooseBucket(342, false));
+        assertEquals(W500, ImageSizeResolver.chooseBucket(343, false));
+        assertEquals(ORIGINAL, ImageSizeResolver.chooseBucket(781, false));
+    }
+
+    @Test
+    public void chooseBucket_metered_isLargestNoWiderCappedAtW780() {
+        assertEquals(W92, ImageSizeResolver.chooseBucket(1, true));
+        assertEquals(W342, ImageSizeResolver.chooseBucket(499, true));
+        assertEquals(W500, ImageSizeResolver.chooseBucket(500, true));
+        assertEquals(W780, ImageSizeResolver.chooseBucket(2000, true));
+    }
+}
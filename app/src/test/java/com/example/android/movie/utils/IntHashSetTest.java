@@ -0,0 +1,55 @@
+package com.example.android.movie.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntHashSetTest {
+
+    @Test
+    public void add_repeatedValue_isOnlyAddedOnce() {
+        IntHashSet set = new IntHashSet();
+        assertTrue(set.add(550));
+        assertFalse(set.add(550));
+        assertTrue(set.contains(550));
+        assertFalse(set.contains(551));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void add_zero_isStoredApartFromEmptySlots() {
+        IntHashSet set = new IntHashSet();
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void add_pastCapacity_growsAndKeepsValues() {
+        IntHashSet set = new IntHashSet(2);
+        for (int i = -500; i < 500; i++) {
+            assertTrue(set.add(i * 7));
+        }
+        assertEquals(1000, set.size());
+        for (int i = -500; i < 500; i++) {
+            assertTrue(set.contains(i * 7));
+            assertFalse(set.contains(i * 7 + 1));
+        }
+    }
+
+    @Test
+    public void clear_removesEveryValue() {
+        IntHashSet set = new IntHashSet();
+        set.add(0);
+        set.add(42);
+        set.clear();
+        assertEquals(0, set.size());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(42));
+        assertTrue(set.add(42));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.android.movie.utils;
+
+import org.junit.Test;
+
+import static com.example.android.movie.utils.Constant.POSTER_PREFETCH_BUDGET_BYTES;
+import static com.example.android.movie.utils.Constant.POSTER_PREFETCH_ESTIMATED_BYTES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PrefetchBudgetTest {
+
+    /** Movies on a TMDb page */
+    private static final int PAGE_SIZE = 20;
+
+    @Test
+    public void tryAcquire_nothingFinished_capsBytesInFlight() {
+        PrefetchBudget budget = new PrefetchBudget(POSTER_PREFETCH_BUDGET_BYTES);
+        int queued = 0;
+        while (budget.tryAcquire(POSTER_PREFETCH_ESTIMATED_BYTES)) {
+            queued++;
+        }
+        assertEquals(POSTER_PREFETCH_BUDGET_BYTES / POSTER_PREFETCH_ESTIMATED_BYTES, queued);
+        assertEquals(POSTER_PREFETCH_BUDGET_BYTES, budget.getInFlightBytes());
+    }
+
+    @Test
+    public void release_finishedPages_prefetchingContinuesPastPageFour() {
+        PrefetchBudget budget = new PrefetchBudget(POSTER_PREFETCH_BUDGET_BYTES);
+        for (int page = 1; page <= 25; page++) {
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                assertTrue("page " + page, budget.tryAcquire(POSTER_PREFETCH_ESTIMATED_BYTES));
+            }
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                budget.release(POSTER_PREFETCH_ESTIMATED_BYTES);
+            }
+        }
+        assertEquals(0, budget.getInFlightBytes());
+    }
+
+    @Test
+    public void release_oneFinished_makesRoomForOneMore() {
+        PrefetchBudget budget = new PrefetchBudget(3);
+        assertTrue(budget.tryAcquire(2));
+        assertFalse(budget.tryAcquire(2));
+        budget.release(2);
+        assertTrue(budget.tryAcquire(2));
+    }
+
+    @Test
+    public void reset_afterCancel_freesTheBudget_andLateReleasesDontGoNegative() {
+        PrefetchBudget budget = new PrefetchBudget(4);
+        assertTrue(budget.tryAcquire(4));
+        budget.reset();
+        budget.release(4);
+        assertEquals(0, budget.getInFlightBytes());
+        assertTrue(budget.tryAcquire(4));
+        assertFalse(budget.tryAcquire(1));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.android.movie.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.DecimalFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the formatting done by {@link FormatUtils} when binding the movie information, a new
+ * DecimalFormat or SimpleDateFormat per call against the cached {@link Formatters}.
+ * Run with the gc profiler to compare the bytes allocated per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormatUtilsBenchmark {
+
+    /** Same patterns as in Constant */
+    private static final String PATTERN_FORMAT_NUMBER = "#,###";
+    private static final String PATTERN_FORMAT_CURRENCY = "$###,###";
+    private static final String PATTERN_FORMAT_DATE_INPUT = "yyyy-MM-dd";
+    private static final String PATTERN_FORMAT_DATE_OUTPUT = "MMM dd, yyyy";
+
+    private static final int VOTE_COUNT = 12874;
+    private static final long BUDGET = 356000000L;
+    private static final String RELEASE_DATE = "2018-04-25";
+
+    private Formatters mFormatters;
+
+    @Setup
+    public void setUp() {
+        mFormatters = new Formatters(Locale.getDefault(), PATTERN_FORMAT_NUMBER,
+                PATTERN_FORMAT_CURRENCY);
+    }
+
+    @Benchmark
+    public String formatNumberNewFormat() {
+        return new DecimalFormat(PATTERN_FORMAT_NUMBER).format(VOTE_COUNT);
+    }
+
+    @Benchmark
+    public String formatNumberCached() {
+        return mFormatters.formatNumber(VOTE_COUNT);
+    }
+
+    @Benchmark
+    public String formatCurrencyNewFormat() {
+        return new DecimalFormat(PATTERN_FORMAT_CURRENCY).format(BUDGET);
+    }
+
+    @Benchmark
+    public String formatCurrencyCached() {
+        return mFormatters.formatCurrency(BUDGET);
+    }
+
+    @Benchmark
+    public int parseDateSimpleDateFormat() throws ParseException {
+        Date date = new SimpleDateFormat(PATTERN_FORMAT_DATE_INPUT, Locale.getDefault())
+                .parse(RELEASE_DATE);
+        return (int) date.getTime();
+    }
+
+    @Benchmark
+    public int parseDateCached() {
+        return Formatters.parseDate(RELEASE_DATE);
+    }
+
+    @Benchmark
+    public String formatDateSimpleDateFormat() throws ParseException {
+        Date date = new SimpleDateFormat(PATTERN_FORMAT_DATE_INPUT, Locale.getDefault())
+                .parse(RELEASE_DATE);
+        return new SimpleDateFormat(PATTERN_FORMAT_DATE_OUTPUT, Locale.getDefault())
+                .format(date);
+    }
+
+    @Benchmark
+    public String formatDateCached() {
+        return mFormatters.formatDate(RELEASE_DATE);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.android.movie.utils;
+
+import com.example.android.movie.model.ModelTypeAdapterFactory;
+import com.example.android.movie.model.MovieDetails;
+import com.example.android.movie.model.MovieResponse;
+import com.example.android.movie.model.ReviewResponse;
+import com.example.android.movie.model.VideoResponse;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static com.example.android.movie.utils.Constant.MOVIE_BASE_URL;
+
+/**
+ * Decodes TMDb responses into the models of {@code TheMovieApi}, with the same Retrofit converter
+ * setup as {@code Controller}.
+ * <p>
+ * The fixtures follow the shape of the TMDb v3 responses: a 20 movie page, movie details with
+ * large credits and the appended videos and reviews, and the reviews and videos responses on
+ * their own. Throughput and the sampled percentiles (p99) are reported for each, run with the gc
+ * profiler for the allocation rate. Each response is decoded both by the reflective adapters of a
+ * default Gson and by the streaming adapters of {@link ModelTypeAdapterFactory}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonDecodeBenchmark {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /** Gson with the reflective adapters */
+    private static final String ADAPTERS_REFLECTION = "reflection";
+
+    /** Gson with the adapters of ModelTypeAdapterFactory, as in Controller */
+    private static final String ADAPTERS_STREAMING = "streaming";
+
+    @Param({ADAPTERS_REFLECTION, ADAPTERS_STREAMING})
+    public String mAdapters;
+
+    private byte[] mMovieResponseJson;
+    private byte[] mMovieDetailsJson;
+    private byte[] mReviewResponseJson;
+    private byte[] mVideoResponseJson;
+
+    private Converter<ResponseBody, MovieResponse> mMovieResponseConverter;
+    private Converter<ResponseBody, MovieDetails> mMovieDetailsConverter;
+    private Converter<ResponseBody, ReviewResponse> mReviewResponseConverter;
+    private Converter<ResponseBody, VideoResponse> mVideoResponseConverter;
+
+    @Setup
+    public void setUp() throws IOException {
+        Retrofit retrofit = buildRetrofit();
+        Annotation[] annotations = new Annotation[0];
+        mMovieResponseConverter = retrofit.responseBodyConverter(MovieResponse.class, annotations);
+        mMovieDetailsConverter = retrofit.responseBodyConverter(MovieDetails.class, annotations);
+        mReviewResponseConverter =
+                retrofit.responseBodyConverter(ReviewResponse.class, annotations);
+        mVideoResponseConverter = retrofit.responseBodyConverter(VideoResponse.class, annotations);
+
+        mMovieResponseJson = readFixture("movie_response.json");
+        mMovieDetailsJson = readFixture("movie_details.json");
+        mReviewResponseJson = readFixture("review_response.json");
+        mVideoResponseJson = readFixture("video_response.json");
+    }
+
+    /**
+     * Decode the details with a new Gson, which has to build its adapters first, as the first
+     * response after the app starts does
+     */
+    @Benchmark
+    public MovieDetails decodeFirstMovieDetails() throws IOException {
+        Converter<ResponseBody, MovieDetails> converter = buildRetrofit()
+                .responseBodyConverter(MovieDetails.class, new Annotation[0]);
+        return converter.convert(ResponseBody.create(JSON, mMovieDetailsJson));
+    }
+
+    @Benchmark
+    public MovieResponse decodeMovieResponse() throws IOException {
+        return mMovieResponseConverter.convert(ResponseBody.create(JSON, mMovieResponseJson));
+    }
+
+    @Benchmark
+    public MovieDetails decodeMovieDetails() throws IOException {
+        return mMovieDetailsConverter.convert(ResponseBody.create(JSON, mMovieDetailsJson));
+    }
+
+    @Benchmark
+    public ReviewResponse decodeReviewResponse() throws IOException {
+        return mReviewResponseConverter.convert(ResponseBody.create(JSON, mReviewResponseJson));
+    }
+
+    @Benchmark
+    public VideoResponse decodeVideoResponse() throws IOException {
+        return mVideoResponseConverter.convert(ResponseBody.create(JSON, mVideoResponseJson));
+    }
+
+    private Retrofit buildRetrofit() {
+        Gson gson = ADAPTERS_STREAMING.equals(mAdapters)
+                ? new GsonBuilder()
+                        .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+                        .create()
+                : new Gson();
+        return new Retrofit.Builder()
+                .baseUrl(MOVIE_BASE_URL)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .build();
+    }
+
+    private static byte[] readFixture(String name) throws IOException {
+        InputStream in = JsonDecodeBenchmark.class.getResourceAsStream("/fixtures/" + name);
+        if (in == null) {
+            throw new IOException("Missing fixture " + name);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.android.movie;
+
+/**
+ * Stands in for the BuildConfig generated by the Android build, which
+ * {@link com.example.android.movie.utils.Constant} reads the API key from. The benchmarks never
+ * call the API, so the key is empty.
+ */
+public final class BuildConfig {
+
+    public static final String API_KEY = "";
+
+    private BuildConfig() {
+    }
+}